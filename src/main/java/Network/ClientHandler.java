@@ -1,74 +1,170 @@
 package Network;
 
-import inf112.skeleton.app.player.AbstractPlayer;
-
-import java.io.*;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.net.Socket;
+import java.util.List;
 
 /**
- * This class is responsible for actions regarding the client of an online match.
+ * This class is responsible for the connection to a single client of an online match.
+ * It keeps the client's read and write buffers, and splits what it reads into frames.
+ * Reading and writing is done by the {@link ServerEventLoop}, while frames can be sent
+ * from any thread.
  */
 public class ClientHandler {
-    private Socket client;
-    private BufferedReader in;
-    private PrintWriter out;
-    private static ArrayList<ClientHandler> clients;
-    private DataOutputStream dataOut;
-    private ObjectOutputStream objOut;
+    private final SocketChannel channel;
+    private final ServerEventLoop eventLoop;
+    private SelectionKey key;
+    // The room the client has joined, only used by the event loop
+    private Room room;
+    // The player id given by the room, 0 before the client has joined one
+    private int playerId;
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+    // Frames waiting to be written. Filled from any thread, emptied by the event loop.
+    private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>();
 
-    public ClientHandler(Socket clientSocket, ArrayList<ClientHandler> clients) throws IOException {
-        this.client = clientSocket;
-        ClientHandler.clients = clients;
-        in = new BufferedReader(new InputStreamReader(client.getInputStream()));
-        out = new PrintWriter(client.getOutputStream(), true);
-        dataOut = new DataOutputStream(client.getOutputStream());
+    public ClientHandler(SocketChannel channel, ServerEventLoop eventLoop) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    Room getRoom() {
+        return room;
+    }
+
+    void setRoom(Room room) {
+        this.room = room;
+    }
+
+    int getPlayerId() {
+        return playerId;
+    }
+
+    void setPlayerId(int playerId) {
+        this.playerId = playerId;
     }
 
     /**
-     * Transmits all the players in the game.
-     * @throws IOException .
+     * Transmits that all players have been received.
      */
-    public void sendAllPlayersReceivedToClient() throws IOException {
-        dataOut.writeBoolean(true);
-        dataOut.flush();
+    public void sendAllPlayersReceivedToClient() {
+        send(Protocol.encodeSignal(Protocol.ALL_PLAYERS_RECEIVED));
     }
 
     /**
-     * Receives a player from a given client.
-     * @return The received player
-     * @throws IOException .
-     * @throws ClassNotFoundException .
+     * Sends the id of the player the client controls.
+     * @param playerId .
      */
-    public AbstractPlayer receivePlayerFromClient() throws IOException, ClassNotFoundException {
-        System.out.println("just before creating inputstream for player");
-        ObjectInputStream objIn = new ObjectInputStream(client.getInputStream());
-
-        AbstractPlayer player = (AbstractPlayer) objIn.readObject();
-        System.out.println("after read player");
-        System.out.println(player);
-        return player;
+    public void sendPlayerIdToClient(int playerId) {
+        send(Protocol.encodeInt(Protocol.PLAYER_ID, playerId));
     }
 
     /**
-     * Uses dataOut to send the number of players that will be in the match.
+     * Sends the number of players that will be in the match.
      * @param numberOfPlayers .
-     * @throws IOException .
      */
-    public void sendNumberOfPlayersToClient(int numberOfPlayers) throws IOException {
-        dataOut.writeInt(numberOfPlayers);
-        dataOut.flush();
+    public void sendNumberOfPlayersToClient(int numberOfPlayers) {
+        send(Protocol.encodeInt(Protocol.NUMBER_OF_PLAYERS, numberOfPlayers));
     }
 
     /**
-     * Sends the list of players in the game to all the other players.
-     * @param playerList A list of all players in match
-     * @throws IOException .
+     * Sends the updates of every player in the game to the client.
+     * @param updates the updates of all players in match
      */
-    public void sendPlayersToAll(ArrayList<AbstractPlayer> playerList) throws IOException {
-        objOut = new ObjectOutputStream(client.getOutputStream());
-        objOut.writeObject(playerList);
-        objOut.flush();
+    public void sendPlayersToAll(List<PlayerUpdate> updates) {
+        send(Protocol.encodeUpdates(updates));
+    }
+
+    /**
+     * Queues a frame for the client. The frame is written by the event loop.
+     * @param frame the payload of the frame
+     */
+    public void send(byte[] frame) {
+        eventLoop.send(this, frame);
+    }
+
+    void enqueue(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + frame.length);
+        buffer.putInt(frame.length).put(frame).flip();
+        synchronized (writeQueue) {
+            writeQueue.add(buffer);
+        }
+    }
+
+    /**
+     * Writes as much of the queued frames as the socket accepts without blocking.
+     * @return true if every queued frame has been written
+     * @throws IOException if the connection is broken
+     */
+    boolean flush() throws IOException {
+        synchronized (writeQueue) {
+            while (!writeQueue.isEmpty()) {
+                ByteBuffer buffer = writeQueue.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining())
+                    return false;
+                writeQueue.poll();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads what is available from the socket without blocking.
+     * @return every frame that has been completely received
+     * @throws IOException if the connection is closed or broken
+     */
+    ArrayList<byte[]> readFrames() throws IOException {
+        if (channel.read(readBuffer) < 0)
+            throw new EOFException("Client disconnected");
+
+        ArrayList<byte[]> frames = new ArrayList<>();
+        readBuffer.flip();
+        while (readBuffer.remaining() >= Integer.BYTES) {
+            int length = readBuffer.getInt(readBuffer.position());
+            if (length < 0 || length > Frames.MAX_FRAME_SIZE)
+                throw new IOException("Invalid frame length " + length);
+            if (readBuffer.remaining() < Integer.BYTES + length) {
+                if (readBuffer.capacity() < Integer.BYTES + length) {
+                    // Make room for the whole frame
+                    ByteBuffer larger = ByteBuffer.allocate(Integer.BYTES + length);
+                    larger.put(readBuffer);
+                    readBuffer = larger;
+                    return frames;
+                }
+                break;
+            }
+            readBuffer.position(readBuffer.position() + Integer.BYTES);
+            byte[] frame = new byte[length];
+            readBuffer.get(frame);
+            frames.add(frame);
+        }
+        readBuffer.compact();
+        return frames;
+    }
+
+    boolean isOpen() {
+        return channel.isOpen();
+    }
 
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println(e);
+        }
     }
 }
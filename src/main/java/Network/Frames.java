@@ -0,0 +1,43 @@
+package Network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Reads and writes frames on blocking streams. Every frame on the wire is an int with the
+ * length of the payload, followed by the payload. The payloads are described in {@link Protocol}.
+ */
+public class Frames {
+    static final int MAX_FRAME_SIZE = 1 << 20;
+
+    private Frames() {
+    }
+
+    /**
+     * Writes a frame to a blocking stream.
+     * @param out the stream
+     * @param frame the payload
+     * @throws IOException .
+     */
+    public static void write(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    /**
+     * Reads a frame from a blocking stream.
+     * @param in the stream
+     * @return the payload
+     * @throws IOException .
+     */
+    public static byte[] read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_SIZE)
+            throw new IOException("Invalid frame length " + length);
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+}
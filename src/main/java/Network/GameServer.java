@@ -0,0 +1,132 @@
+package Network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server hosting any number of rooms on one port. A client that connects is in no room
+ * until it joins one, and can ask for the room directory first.
+ */
+public class GameServer implements ServerEventLoop.Listener {
+    // Joining this room id puts the client in the first open room
+    public static final int ANY_ROOM = 0;
+
+    private final ServerEventLoop eventLoop;
+    private final ConcurrentSkipListMap<Integer, Room> rooms = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextRoomId = new AtomicInteger(1);
+    // Number of players in the rooms made for clients joining any room. 0 to never make rooms.
+    private final int dedicatedRoomCapacity;
+
+    /**
+     * @param port the port to listen on, or 0 for any free port
+     * @param dedicatedRoomCapacity number of players in the rooms made when a client joins
+     *                              any room and none are open, or 0 to never make rooms
+     * @throws IOException if the port can not be used
+     */
+    public GameServer(int port, int dedicatedRoomCapacity) throws IOException {
+        this.dedicatedRoomCapacity = dedicatedRoomCapacity;
+        eventLoop = new ServerEventLoop(port, this);
+    }
+
+    /**
+     * Starts serving the rooms on a new thread.
+     * @return the thread
+     */
+    public Thread start() {
+        return eventLoop.start();
+    }
+
+    public void stop() {
+        eventLoop.stop();
+    }
+
+    public int getPort() throws IOException {
+        return eventLoop.getPort();
+    }
+
+    /**
+     * Creates a room.
+     * @param name the name shown in the room directory
+     * @param capacity the number of players in the match
+     * @param hostedLocally true if a player of this process hosts the room as player 1
+     * @return the room
+     */
+    public Room createRoom(String name, int capacity, boolean hostedLocally) {
+        return addRoom(nextRoomId.getAndIncrement(), name, capacity, hostedLocally);
+    }
+
+    /**
+     * Creates a room for clients joining any room, named after its id.
+     */
+    private Room createDedicatedRoom() {
+        int roomId = nextRoomId.getAndIncrement();
+        return addRoom(roomId, "Room " + roomId, dedicatedRoomCapacity, false);
+    }
+
+    private Room addRoom(int roomId, String name, int capacity, boolean hostedLocally) {
+        Room room = new Room(roomId, name, capacity, hostedLocally);
+        rooms.put(roomId, room);
+        return room;
+    }
+
+    /**
+     * @return the room directory
+     */
+    public List<RoomInfo> getRoomInfos() {
+        ArrayList<RoomInfo> infos = new ArrayList<>();
+        for (Room room : rooms.values())
+            infos.add(room.getInfo());
+        return infos;
+    }
+
+    @Override
+    public void connected(ClientHandler client) {
+        System.out.println("[SERVER] Connected to player!");
+    }
+
+    @Override
+    public void frameReceived(ClientHandler client, byte[] frame) throws IOException {
+        if (client.getRoom() != null) {
+            client.getRoom().frameReceived(client, frame);
+            return;
+        }
+        switch (Protocol.getType(frame)) {
+            case Protocol.LIST_ROOMS:
+                client.send(Protocol.encodeRoomList(getRoomInfos()));
+                break;
+            case Protocol.JOIN_ROOM:
+                Room room = findRoom(Protocol.decodeInt(Protocol.JOIN_ROOM, frame));
+                if (room == null || !room.join(client))
+                    client.send(Protocol.encodeSignal(Protocol.ROOM_CLOSED));
+                break;
+            default:
+                throw new IOException("Join a room first");
+        }
+    }
+
+    private Room findRoom(int roomId) {
+        if (roomId != ANY_ROOM)
+            return rooms.get(roomId);
+        for (Room room : rooms.values()) {
+            if (room.isOpen())
+                return room;
+        }
+        if (dedicatedRoomCapacity > 0)
+            return createDedicatedRoom();
+        return null;
+    }
+
+    @Override
+    public void disconnected(ClientHandler client) {
+        Room room = client.getRoom();
+        if (room == null)
+            return;
+        room.leave(client);
+        // A dedicated match can not go on when everyone has left
+        if (room.isStarted() && room.isEmpty())
+            rooms.remove(room.getRoomId());
+    }
+}
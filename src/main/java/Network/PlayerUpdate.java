@@ -0,0 +1,135 @@
+package Network;
+
+import inf112.skeleton.app.cards.Card;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.cards.ProgramCardDeck;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The part of a player that changes during a round: the programmed register,
+ * whether the player is ready and whether the robot is powering down.
+ * This is all that is sent over the network each round. Every copy of an online game has
+ * the same program card deck, so the register is sent as the ids of its cards.
+ */
+public class PlayerUpdate {
+    private static final int READY = 1;
+    private static final int POWER_DOWN = 2;
+
+    private final int playerId;
+    private final boolean ready;
+    private final boolean powerDown;
+    // The ids of the cards in the register. Empty when powering down.
+    private final int[] cardIds;
+
+    public PlayerUpdate(int playerId, boolean ready, boolean powerDown, int[] cardIds) {
+        this.playerId = playerId;
+        this.ready = ready;
+        this.powerDown = powerDown;
+        this.cardIds = cardIds;
+    }
+
+    /**
+     * Creates an update from the current state of a player.
+     * @param player the player
+     * @return the update
+     * @throws IllegalArgumentException if a card in the register is not from a program card deck
+     */
+    public static PlayerUpdate of(AbstractPlayer player) {
+        CardDeck register = player.getRobot().getRegister();
+        boolean powerDown = register.getSize() > 0;
+        for (int i = 0; i < register.getSize(); i++) {
+            if (register.getCardValueAt(i) != CardValue.PD)
+                powerDown = false;
+        }
+        int size = powerDown ? 0 : register.getSize();
+        int[] cardIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            cardIds[i] = register.getCard(i).getId();
+            if (cardIds[i] == Card.NO_ID)
+                throw new IllegalArgumentException("Card is not from the program card deck");
+        }
+        return new PlayerUpdate(player.getPlayerId(), player.getReady(), powerDown, cardIds);
+    }
+
+    /**
+     * Applies the update to the local copy of the player. The cards are taken out of the
+     * player's hand, as they were by the player who sent the update.
+     * @param player the player with the same id as the update
+     * @param programCardDeck the program card deck of the local copy of the game
+     */
+    public void applyTo(AbstractPlayer player, ProgramCardDeck programCardDeck) {
+        CardDeck register = new CardDeck();
+        if (powerDown) {
+            register.populate(CardValue.PD, RulesEngine.REGISTER_SIZE);
+        } else {
+            for (int cardId : cardIds) {
+                Card card = programCardDeck.getCardById(cardId);
+                player.getHand().remove(card);
+                register.addToDeck(card);
+            }
+        }
+        player.getRobot().updateRegister(register);
+        player.setReady(ready);
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isPowerDown() {
+        return powerDown;
+    }
+
+    public int[] getCardIds() {
+        return Arrays.copyOf(cardIds, cardIds.length);
+    }
+
+    /**
+     * @return the number of bytes the update takes on the wire
+     */
+    int encodedSize() {
+        return 3 + cardIds.length;
+    }
+
+    /**
+     * Writes the update as: player id, flags, number of cards, then the id of each card.
+     * @param buffer the buffer to write to
+     */
+    void write(ByteBuffer buffer) {
+        buffer.put((byte) playerId);
+        buffer.put((byte) ((ready ? READY : 0) | (powerDown ? POWER_DOWN : 0)));
+        buffer.put((byte) cardIds.length);
+        for (int cardId : cardIds)
+            buffer.put((byte) cardId);
+    }
+
+    /**
+     * Reads an update written by {@link #write(ByteBuffer)}.
+     * @param buffer the buffer to read from
+     * @return the update
+     * @throws IllegalArgumentException if the buffer does not hold a valid update
+     */
+    static PlayerUpdate read(ByteBuffer buffer) {
+        try {
+            int playerId = buffer.get() & 0xFF;
+            int flags = buffer.get();
+            int size = buffer.get() & 0xFF;
+            int[] cardIds = new int[size];
+            for (int i = 0; i < size; i++)
+                cardIds[i] = buffer.get() & 0xFF;
+            return new PlayerUpdate(playerId, (flags & READY) != 0, (flags & POWER_DOWN) != 0, cardIds);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Player update is cut short", e);
+        }
+    }
+}
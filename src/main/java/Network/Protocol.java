@@ -0,0 +1,222 @@
+package Network;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The messages sent between the server and the clients. Every message starts with the
+ * protocol version and the message type, followed by the fields of the message.
+ * Messages from a different version of the game are rejected instead of being misread.
+ */
+public class Protocol {
+    public static final byte VERSION = 1;
+
+    // Message types
+    public static final byte PLAYER_ID = 1;
+    public static final byte NUMBER_OF_PLAYERS = 2;
+    public static final byte ALL_PLAYERS_RECEIVED = 3;
+    public static final byte PLAYER_UPDATE = 4;
+    public static final byte PLAYER_UPDATES = 5;
+    public static final byte DELTA = 6;
+    public static final byte SNAPSHOT_REQUEST = 7;
+    public static final byte SNAPSHOT = 8;
+    public static final byte GAME_SEED = 9;
+    public static final byte ROUND_SEED = 10;
+    public static final byte LIST_ROOMS = 11;
+    public static final byte ROOM_LIST = 12;
+    public static final byte JOIN_ROOM = 13;
+    public static final byte ROOM_CLOSED = 14;
+
+    private static final int HEADER_SIZE = 2;
+
+    private Protocol() {
+    }
+
+    /**
+     * @param frame a message
+     * @return the type of the message
+     * @throws IOException if the message is from a different version of the protocol
+     */
+    public static byte getType(byte[] frame) throws IOException {
+        if (frame.length < HEADER_SIZE)
+            throw new IOException("Message is too short");
+        if (frame[0] != VERSION)
+            throw new IOException("Unsupported protocol version " + frame[0]);
+        return frame[1];
+    }
+
+    public static byte[] encodeInt(byte type, int value) {
+        return header(type, Integer.BYTES).putInt(value).array();
+    }
+
+    public static int decodeInt(byte type, byte[] frame) throws IOException {
+        try {
+            return body(type, frame).getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Message is too short", e);
+        }
+    }
+
+    public static byte[] encodeLong(byte type, long value) {
+        return header(type, Long.BYTES).putLong(value).array();
+    }
+
+    public static long decodeLong(byte type, byte[] frame) throws IOException {
+        try {
+            return body(type, frame).getLong();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Message is too short", e);
+        }
+    }
+
+    /**
+     * @param type the type of the message
+     * @return a message without fields
+     */
+    public static byte[] encodeSignal(byte type) {
+        return header(type, 0).array();
+    }
+
+    public static byte[] encodeUpdate(PlayerUpdate update) {
+        ByteBuffer buffer = header(PLAYER_UPDATE, update.encodedSize());
+        update.write(buffer);
+        return buffer.array();
+    }
+
+    public static PlayerUpdate decodeUpdate(byte[] frame) throws IOException {
+        try {
+            return PlayerUpdate.read(body(PLAYER_UPDATE, frame));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encodes the updates of every player in a single message.
+     * @param updates the updates
+     * @return the message
+     */
+    public static byte[] encodeUpdates(List<PlayerUpdate> updates) {
+        int size = 1;
+        for (PlayerUpdate update : updates)
+            size += update.encodedSize();
+        ByteBuffer buffer = header(PLAYER_UPDATES, size);
+        buffer.put((byte) updates.size());
+        for (PlayerUpdate update : updates)
+            update.write(buffer);
+        return buffer.array();
+    }
+
+    public static ArrayList<PlayerUpdate> decodeUpdates(byte[] frame) throws IOException {
+        ByteBuffer buffer = body(PLAYER_UPDATES, frame);
+        try {
+            int count = buffer.get() & 0xFF;
+            ArrayList<PlayerUpdate> updates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                updates.add(PlayerUpdate.read(buffer));
+            return updates;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new IOException("Invalid player updates", e);
+        }
+    }
+
+    /**
+     * @param version the version of the state after the change
+     * @param delta the change
+     * @return the message
+     */
+    public static byte[] encodeDelta(int version, StateDelta delta) {
+        ByteBuffer buffer = header(DELTA, Integer.BYTES + delta.encodedSize());
+        buffer.putInt(version);
+        delta.write(buffer);
+        return buffer.array();
+    }
+
+    public static int decodeDeltaVersion(byte[] frame) throws IOException {
+        try {
+            return body(DELTA, frame).getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Invalid state delta", e);
+        }
+    }
+
+    public static StateDelta decodeDelta(byte[] frame) throws IOException {
+        ByteBuffer buffer = body(DELTA, frame);
+        try {
+            buffer.getInt();
+            return StateDelta.read(buffer);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new IOException("Invalid state delta", e);
+        }
+    }
+
+    public static byte[] encodeSnapshot(StateSnapshot snapshot) {
+        int size = Integer.BYTES + Short.BYTES;
+        for (StateDelta delta : snapshot.getDeltas())
+            size += delta.encodedSize();
+        ByteBuffer buffer = header(SNAPSHOT, size);
+        buffer.putInt(snapshot.getVersion());
+        buffer.putShort((short) snapshot.getDeltas().size());
+        for (StateDelta delta : snapshot.getDeltas())
+            delta.write(buffer);
+        return buffer.array();
+    }
+
+    public static StateSnapshot decodeSnapshot(byte[] frame) throws IOException {
+        ByteBuffer buffer = body(SNAPSHOT, frame);
+        try {
+            int version = buffer.getInt();
+            int count = buffer.getShort() & 0xFFFF;
+            ArrayList<StateDelta> deltas = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                deltas.add(StateDelta.read(buffer));
+            return new StateSnapshot(version, deltas);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new IOException("Invalid snapshot", e);
+        }
+    }
+
+    /**
+     * @param rooms the room directory
+     * @return the message
+     */
+    public static byte[] encodeRoomList(List<RoomInfo> rooms) {
+        int size = Short.BYTES;
+        for (RoomInfo room : rooms)
+            size += room.encodedSize();
+        ByteBuffer buffer = header(ROOM_LIST, size);
+        buffer.putShort((short) rooms.size());
+        for (RoomInfo room : rooms)
+            room.write(buffer);
+        return buffer.array();
+    }
+
+    public static ArrayList<RoomInfo> decodeRoomList(byte[] frame) throws IOException {
+        ByteBuffer buffer = body(ROOM_LIST, frame);
+        try {
+            int count = buffer.getShort() & 0xFFFF;
+            ArrayList<RoomInfo> rooms = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                rooms.add(RoomInfo.read(buffer));
+            return rooms;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new IOException("Invalid room list", e);
+        }
+    }
+
+    private static ByteBuffer header(byte type, int bodySize) {
+        return ByteBuffer.allocate(HEADER_SIZE + bodySize).put(VERSION).put(type);
+    }
+
+    private static ByteBuffer body(byte type, byte[] frame) throws IOException {
+        byte actual = getType(frame);
+        if (actual != type)
+            throw new IOException("Expected message " + type + ", got " + actual);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        buffer.position(HEADER_SIZE);
+        return buffer;
+    }
+}
@@ -4,26 +4,168 @@ import inf112.skeleton.app.player.AbstractPlayer;
 
 import java.io.*;
 import java.net.Socket;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
- * An instance for the client of a game.
+ * An instance for the client of a game. A reader thread takes every message from the server:
+ * state deltas and snapshots go to the {@link StateReceiver}, and the rest are kept until
+ * the game asks for them.
  */
 public class RoboreliableClient {
     private static final String SERVER_IP = "127.0.0.1"; // Localhost
     private static final int SERVER_PORT = 9090;
+    // Put in the inbox when the connection is lost
+    private static final byte[] DISCONNECTED = new byte[0];
     private static Socket socket;
+    private static DataOutputStream dataOut;
+
+    private static final LinkedBlockingQueue<byte[]> inbox = new LinkedBlockingQueue<>();
+    // Messages taken from the inbox while waiting for a message of another type. They are
+    // kept in order for the callers waiting for them.
+    private static final ArrayDeque<byte[]> held = new ArrayDeque<>();
+    private static final StateReceiver stateReceiver = new StateReceiver(RoboreliableClient::requestSnapshot);
 
     /**
-     * Connects to the game.
+     * Connects to the game hosted by another player, or to the first open room of a server.
      * @throws IOException .
      */
     public static void connect() throws IOException {
-        socket = new Socket(SERVER_IP, SERVER_PORT);
-
+        open(SERVER_IP, SERVER_PORT);
+        joinRoom(GameServer.ANY_ROOM);
         System.out.println("Waiting for host to start the game");
     }
 
+    /**
+     * Connects to a server without joining a room, so the room directory can be read.
+     * @param serverIp the address of the server
+     * @param serverPort the port of the server
+     * @throws IOException .
+     */
+    public static void open(String serverIp, int serverPort) throws IOException {
+        // Forget what was left of an earlier connection
+        inbox.clear();
+        synchronized (held) {
+            held.clear();
+        }
+        socket = new Socket(serverIp, serverPort);
+        socket.setTcpNoDelay(true);
+        DataInputStream dataIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        dataOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        Thread reader = new Thread(() -> readMessages(dataIn), "RoboreliableClient");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Asks the server for its room directory.
+     * @return every room on the server
+     * @throws IOException .
+     */
+    public static ArrayList<RoomInfo> listRooms() throws IOException {
+        send(Protocol.encodeSignal(Protocol.LIST_ROOMS));
+        return Protocol.decodeRoomList(nextMessage(Protocol.ROOM_LIST));
+    }
+
+    /**
+     * Joins a room. The server answers with the player id, which is read by getPlayerId.
+     * @param roomId the id of the room, or GameServer.ANY_ROOM for the first open room
+     * @throws IOException .
+     */
+    public static void joinRoom(int roomId) throws IOException {
+        send(Protocol.encodeInt(Protocol.JOIN_ROOM, roomId));
+    }
+
+    private static void readMessages(DataInputStream dataIn) {
+        try {
+            while (true) {
+                byte[] frame = Frames.read(dataIn);
+                byte type = Protocol.getType(frame);
+                if (type == Protocol.DELTA || type == Protocol.SNAPSHOT)
+                    stateReceiver.received(frame);
+                else
+                    inbox.add(frame);
+            }
+        } catch (IOException e) {
+            System.out.println(e);
+            inbox.add(DISCONNECTED);
+        }
+    }
+
+    /**
+     * Waits for the next message that is not a state change.
+     * @return the message
+     * @throws IOException if the connection is lost
+     */
+    private static byte[] nextMessage() throws IOException {
+        synchronized (held) {
+            byte[] frame = held.poll();
+            return frame != null ? frame : takeFromInbox();
+        }
+    }
+
+    /**
+     * Waits for the next message of a type. Messages of other types that arrive first are
+     * kept for the callers waiting for them, in the order they arrived.
+     * @param type the type of the message
+     * @return the message
+     * @throws IOException if the connection is lost
+     */
+    private static byte[] nextMessage(byte type) throws IOException {
+        synchronized (held) {
+            for (Iterator<byte[]> frames = held.iterator(); frames.hasNext(); ) {
+                byte[] frame = frames.next();
+                if (Protocol.getType(frame) == type) {
+                    frames.remove();
+                    return frame;
+                }
+            }
+            while (true) {
+                byte[] frame = takeFromInbox();
+                if (Protocol.getType(frame) == type)
+                    return frame;
+                held.add(frame);
+            }
+        }
+    }
+
+    private static byte[] takeFromInbox() throws IOException {
+        try {
+            byte[] frame = inbox.take();
+            if (frame == DISCONNECTED) {
+                // Leave it for the next caller
+                inbox.add(DISCONNECTED);
+                throw new EOFException("Disconnected from host");
+            }
+            return frame;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * @return the changes to the state of the game received from the host
+     */
+    public static StateReceiver getStateReceiver() {
+        return stateReceiver;
+    }
+
+    /**
+     * Closes the connection to the server, so another game can be joined.
+     */
+    public static void disconnect() {
+        try {
+            if (socket != null)
+                socket.close();
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+
     /**
      * Exits the game.
      * @throws IOException .
@@ -39,54 +181,71 @@ public class RoboreliableClient {
      * @throws IOException .
      */
     public static void sendPlayerToServer(AbstractPlayer guestPlayer) throws IOException {
-        System.out.println("after objIn");
-        ObjectOutputStream objOut = new ObjectOutputStream(socket.getOutputStream());
-        System.out.println("inside SendPlayer");
-        objOut.writeObject(guestPlayer);
-        objOut.flush();
+        send(Protocol.encodeUpdate(PlayerUpdate.of(guestPlayer)));
     }
 
     /**
-     * Checks if all the players that are supposed to join have been received.
-     * @return true if all players have been received
-     * @throws IOException .
+     * Asks the server for a snapshot of the state, after a state delta has been missed.
+     */
+    public static void requestSnapshot() {
+        try {
+            send(Protocol.encodeSignal(Protocol.SNAPSHOT_REQUEST));
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+
+    private static synchronized void send(byte[] frame) throws IOException {
+        Frames.write(dataOut, frame);
+    }
+
+    /**
+     * Waits until the server has received the programs of every player. Other messages that
+     * arrive first, like the seed of the next round, are kept for their callers.
+     * @return true once all players have been received
+     * @throws IOException if the connection is lost
      */
     public static boolean allPlayersReceived() throws IOException {
-        System.out.println("just before dataIn in client");
-        DataInputStream dataIn = new DataInputStream(socket.getInputStream());
-        System.out.println("After dataIN");
-        boolean bool = dataIn.readBoolean();
-        System.out.println("after read data from dataIn");
-        System.out.println(bool);
-        return bool;
+        nextMessage(Protocol.ALL_PLAYERS_RECEIVED);
+        return true;
     }
 
     /**
-     * Returns a list of players in the server.
-     * @return a list of all players in the server
+     * Returns the updates of every player in the server.
+     * @return a list of the updates of all players in the server
      * @throws IOException .
-     * @throws ClassNotFoundException .
      */
-    public static ArrayList<AbstractPlayer> getPlayersFromServer() throws IOException, ClassNotFoundException {
-        System.out.println("before objIn created");
-        ObjectInputStream objIn = new ObjectInputStream(socket.getInputStream());
-        System.out.println("after objIn created");
-        ArrayList<AbstractPlayer> playerList = (ArrayList<AbstractPlayer>) objIn.readObject();
-        return playerList;
+    public static ArrayList<PlayerUpdate> getPlayersFromServer() throws IOException {
+        return Protocol.decodeUpdates(nextMessage(Protocol.PLAYER_UPDATES));
     }
 
     /**
-     *
+     * Waits for the answer to joining a room.
      * @return player ID
+     * @throws IOException if the room is closed, or the connection is lost
      */
-    public static int getPlayerId() {
-        try {
-            DataInputStream dataIn = new DataInputStream(socket.getInputStream());
-            return dataIn.readInt();
-        } catch (IOException e) {
-            System.out.println(e);
-        }
-        return 0;
+    public static int getPlayerId() throws IOException {
+        byte[] frame = nextMessage();
+        if (Protocol.getType(frame) == Protocol.ROOM_CLOSED)
+            throw new IOException("The room is closed");
+        return Protocol.decodeInt(Protocol.PLAYER_ID, frame);
+    }
+
+    /**
+     * @return the seed of the program card deck, sent by the host when the game starts
+     * @throws IOException .
+     */
+    public static long getGameSeed() throws IOException {
+        return Protocol.decodeLong(Protocol.GAME_SEED, nextMessage(Protocol.GAME_SEED));
+    }
+
+    /**
+     * Waits for the host to start a new round.
+     * @return the seed of the round
+     * @throws IOException .
+     */
+    public static long getRoundSeed() throws IOException {
+        return Protocol.decodeLong(Protocol.ROUND_SEED, nextMessage(Protocol.ROUND_SEED));
     }
 
     /**
@@ -95,12 +254,10 @@ public class RoboreliableClient {
      */
     public static int getNumberOfPlayers() {
         try {
-            DataInputStream dataIn = new DataInputStream(socket.getInputStream());
-            return dataIn.readInt();
+            return Protocol.decodeInt(Protocol.NUMBER_OF_PLAYERS, nextMessage(Protocol.NUMBER_OF_PLAYERS));
         } catch (IOException e) {
             System.out.println(e);
         }
         return 0;
     }
 }
-
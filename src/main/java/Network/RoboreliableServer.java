@@ -2,22 +2,19 @@ package Network;
 
 import inf112.skeleton.app.player.AbstractPlayer;
 
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.*;
 import java.util.ArrayList;
 
 /**
- * An instance of a server for the game.
+ * The server of a game hosted by this player. It runs a {@link GameServer} with a single
+ * {@link Room} that this player hosts as player 1, and passes everything on to that room.
+ * A player hosts one match at a time; several matches are served by main.DedicatedServer.
  */
 public class RoboreliableServer {
     private static final int PORT = 9090;
-    private static int numberOfPlayers;
 
-    // contains the information of players after they have programmed their robots
-    public static ArrayList<AbstractPlayer> players = new ArrayList<>();
-
-    private static final ArrayList<ClientHandler> clients = new ArrayList<>();
+    private static GameServer server;
+    private static Room room;
 
     /**
      * Starts the game.
@@ -25,105 +22,95 @@ public class RoboreliableServer {
      * @throws IOException .
      */
     public static void start(int players) throws IOException {
-        ServerSocket listener = new ServerSocket(PORT);
+        server = new GameServer(PORT, 0);
+        room = server.createRoom("Hosted game", players, true);
+        server.start();
 
-        setNumberOfPlayers(players);
         try {
-            // accept players until the number of players entered has been reached
-            // setup
-            while (clients.size() < players-1) {
-                System.out.println("[HOST] " + (clients.size()+1) + " players in lobby, including you");
-                Socket client = listener.accept();
-                System.out.println("[HOST] Connected to player!");
-                ClientHandler clientHandler = new ClientHandler(client, clients);
-                clients.add(clientHandler);
-
-                //sets player id
-                DataOutputStream dataOut = new DataOutputStream(client.getOutputStream());
-                dataOut.writeInt(clients.size()+1);
-                dataOut.flush();
-            }
-            // at this point all clients should be set up and have a connection to the server
-            sendNumberOfPlayers();
-            System.out.println("All players connected. Starting game");
-        } catch (Exception e) {
+            System.out.println("[HOST] 1 players in lobby, including you");
+            // wait until the number of players entered has been reached
+            room.awaitFull();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             System.out.println(e);
         }
     }
 
     /**
-     * Sets the number of players in the game based on how many have joined.
-     * @param players the number of players.
+     * Stops the server and disconnects every client.
      */
-    private static void setNumberOfPlayers(int players) {
-        numberOfPlayers = players;
+    public static void stop() {
+        if (server != null)
+            server.stop();
+        server = null;
     }
 
     /**
-     * Sends the number of players.
-     * @throws IOException .
+     * @return the seed of the program card deck
      */
-    public static void sendNumberOfPlayers() throws IOException {
-        for (ClientHandler client : clients) {
-            client.sendNumberOfPlayersToClient(numberOfPlayers);
-        }
+    public static long getGameSeed() {
+        return room.getGameSeed();
+    }
+
+    /**
+     * Picks the seed of a new round and sends it to every client.
+     * @return the seed
+     */
+    public static long sendRoundSeed() {
+        return room.sendRoundSeed();
     }
 
     /**
      *
-     * @return the player list
+     * @return the updates of every player this round
+     */
+    public static ArrayList<PlayerUpdate> getPlayerUpdates() {
+        return room.getPlayerUpdates();
+    }
+
+    /**
+     * Forgets the updates of the last round.
      */
-    public static ArrayList<AbstractPlayer> getPlayerList() {
-        return RoboreliableServer.players;
+    public static void newRound() {
+        room.newRound();
     }
 
     /**
      *
      * @return true of all players received
-     * @throws IOException .
      */
-    public static boolean checkIfAllPlayersReceived() throws IOException {
-        boolean ready = numberOfPlayers == players.size();
-        if (ready) {
-            sendAllPlayersReceivedSignal();
-            for (ClientHandler client : clients) {
-                client.sendPlayersToAll(players);
-
-            }
-        }
-        return (numberOfPlayers == players.size());
+    public static boolean checkIfAllPlayersReceived() {
+        return room.checkIfAllPlayersReceived();
     }
 
     /**
-     * Gets players from the clients
-     * @throws IOException .
-     * @throws ClassNotFoundException .
+     * Gets the updates that have been received from the clients. Waits a short while
+     * if none have arrived yet, so it can be called in a loop without spinning.
      */
-    public static void receivePlayersFromClients() throws IOException, ClassNotFoundException {
-        for (ClientHandler client : clients) {
-            players.add(client.receivePlayerFromClient());
-        }
+    public static void receivePlayersFromClients() {
+        room.receivePlayersFromClients();
     }
 
     /**
      * Gets the host player
      * @param hostPlayer whoever is hosting the game
-     * @throws IOException .
      */
-    public static void receiveHostPlayer(AbstractPlayer hostPlayer) throws IOException {
-        players.add(hostPlayer);
+    public static void receiveHostPlayer(AbstractPlayer hostPlayer) {
+        room.addHostUpdate(PlayerUpdate.of(hostPlayer));
     }
 
-
     /**
-     * Sends the received signal of all players in game
-     * @throws IOException .
+     * Sends a message to every client.
+     * @param frame the message
      */
-    private static void sendAllPlayersReceivedSignal() throws IOException {
-        for (ClientHandler client : clients) {
-            client.sendAllPlayersReceivedToClient();
+    public static void broadcast(byte[] frame) {
+        room.broadcast(frame);
+    }
 
-        }
+    /**
+     * @return the next client waiting for a snapshot, or null if there is none
+     */
+    public static ClientHandler pollSnapshotRequest() {
+        return room.pollSnapshotRequest();
     }
 }
-
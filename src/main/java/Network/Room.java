@@ -0,0 +1,286 @@
+package Network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single match on a {@link GameServer}, with its own players, seeds and program updates.
+ * A room is either hosted by a player of the game, who has player id 1 and runs the match
+ * through {@link RoboreliableServer}, or dedicated, in which case every player is a client and
+ * the room only relays the programs and seeds of the lockstep rounds.
+ */
+public class Room {
+    // How long receivePlayersFromClients waits for a player before returning
+    private static final long RECEIVE_TIMEOUT_MILLIS = 100;
+
+    private final int roomId;
+    private final String name;
+    private final int capacity;
+    private final boolean hostedLocally;
+    private final Random random = new Random();
+
+    private final CopyOnWriteArrayList<ClientHandler> clients = new CopyOnWriteArrayList<>();
+    private final CountDownLatch full;
+    private volatile boolean started = false;
+    // The seed of the program card deck, shared by every copy of the game
+    private volatile long gameSeed;
+
+    // contains the updates of players after they have programmed their robots, by player id
+    private TreeMap<Integer, PlayerUpdate> updates = new TreeMap<>();
+    // Players who left after the match started. Their robots are powered down every round.
+    private final Set<Integer> departed = ConcurrentHashMap.newKeySet();
+    // Updates decoded by the event loop, waiting to be picked up by the game thread of the host
+    private final LinkedBlockingQueue<PlayerUpdate> receivedUpdates = new LinkedBlockingQueue<>();
+    // Clients that have missed a state delta and are waiting for a snapshot
+    private final ConcurrentLinkedQueue<ClientHandler> snapshotRequests = new ConcurrentLinkedQueue<>();
+
+    public Room(int roomId, String name, int capacity, boolean hostedLocally) {
+        this.roomId = roomId;
+        this.name = name;
+        this.capacity = capacity;
+        this.hostedLocally = hostedLocally;
+        full = new CountDownLatch(1);
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public boolean isEmpty() {
+        return clients.isEmpty();
+    }
+
+    /**
+     * @return true if a client can join the room
+     */
+    public boolean isOpen() {
+        return !started && clients.size() < remoteSlots();
+    }
+
+    private int remoteSlots() {
+        return hostedLocally ? capacity - 1 : capacity;
+    }
+
+    /**
+     * @return what the room directory shows about the room
+     */
+    public RoomInfo getInfo() {
+        return new RoomInfo(roomId, name, clients.size() + (hostedLocally ? 1 : 0), capacity, started);
+    }
+
+    /**
+     * Adds a client to the room and gives it a player id. Starts the match when the room is full.
+     * Runs on the event loop thread.
+     * @param client the client
+     * @return false if the room is not open
+     */
+    boolean join(ClientHandler client) {
+        if (!isOpen())
+            return false;
+        client.setPlayerId(freePlayerId());
+        clients.add(client);
+        client.setRoom(this);
+        System.out.println("[" + name + "] " + getInfo().getPlayers() + " players in lobby");
+
+        //sets player id
+        client.sendPlayerIdToClient(client.getPlayerId());
+        if (clients.size() == remoteSlots())
+            start();
+        return true;
+    }
+
+    /**
+     * @return the lowest player id no client in the room has, since a client may have left the lobby
+     */
+    private int freePlayerId() {
+        int playerId = hostedLocally ? 2 : 1;
+        while (hasPlayer(playerId))
+            playerId++;
+        return playerId;
+    }
+
+    private boolean hasPlayer(int playerId) {
+        for (ClientHandler client : clients) {
+            if (client.getPlayerId() == playerId)
+                return true;
+        }
+        return false;
+    }
+
+    private void start() {
+        started = true;
+        gameSeed = random.nextLong();
+        // at this point all clients should be set up and have a connection to the server
+        for (ClientHandler client : clients)
+            client.sendNumberOfPlayersToClient(capacity);
+        broadcast(Protocol.encodeLong(Protocol.GAME_SEED, gameSeed));
+        // A dedicated room starts the first round itself, a host does it from the game
+        if (!hostedLocally)
+            sendRoundSeed();
+        full.countDown();
+        System.out.println("[" + name + "] All players connected. Starting game");
+    }
+
+    /**
+     * Waits until every player has joined.
+     * @throws InterruptedException .
+     */
+    public void awaitFull() throws InterruptedException {
+        full.await();
+    }
+
+    /**
+     * Handles a message from a client in the room. Runs on the event loop thread.
+     * @param client the client
+     * @param frame the message
+     * @throws IOException if the message is invalid
+     */
+    void frameReceived(ClientHandler client, byte[] frame) throws IOException {
+        switch (Protocol.getType(frame)) {
+            case Protocol.PLAYER_UPDATE:
+                PlayerUpdate update = Protocol.decodeUpdate(frame);
+                if (update.getPlayerId() != client.getPlayerId())
+                    throw new IOException("Update for player " + update.getPlayerId()
+                            + " from player " + client.getPlayerId());
+                if (hostedLocally) {
+                    receivedUpdates.add(update);
+                } else {
+                    updates.put(update.getPlayerId(), update);
+                    startRoundIfAllPlayersReceived();
+                }
+                break;
+            case Protocol.SNAPSHOT_REQUEST:
+                // Only a host has a state to take a snapshot of
+                if (hostedLocally)
+                    snapshotRequests.add(client);
+                break;
+            default:
+                throw new IOException("Unexpected message " + Protocol.getType(frame));
+        }
+    }
+
+    /**
+     * Removes a client that has disconnected. Runs on the event loop thread.
+     * @param client the client
+     */
+    void leave(ClientHandler client) {
+        if (!clients.remove(client))
+            return;
+        System.out.println("[" + name + "] Player disconnected");
+        if (!started)
+            return;
+        departed.add(client.getPlayerId());
+        // The player may have been the last one the round was waiting for
+        if (!hostedLocally)
+            startRoundIfAllPlayersReceived();
+    }
+
+    /**
+     * Starts the next round of a dedicated room once every player has sent their update.
+     */
+    private void startRoundIfAllPlayersReceived() {
+        if (checkIfAllPlayersReceived()) {
+            newRound();
+            sendRoundSeed();
+        }
+    }
+
+    /**
+     * Sends a message to every client in the room.
+     * @param frame the message
+     */
+    public void broadcast(byte[] frame) {
+        for (ClientHandler client : clients) {
+            client.send(frame);
+        }
+    }
+
+    public long getGameSeed() {
+        return gameSeed;
+    }
+
+    /**
+     * Picks the seed of a new round and sends it to every client.
+     * @return the seed
+     */
+    public long sendRoundSeed() {
+        long roundSeed = random.nextLong();
+        broadcast(Protocol.encodeLong(Protocol.ROUND_SEED, roundSeed));
+        return roundSeed;
+    }
+
+    /**
+     * @return the updates of every player this round
+     */
+    public ArrayList<PlayerUpdate> getPlayerUpdates() {
+        return new ArrayList<>(updates.values());
+    }
+
+    /**
+     * Forgets the updates of the last round.
+     */
+    public void newRound() {
+        updates = new TreeMap<>();
+    }
+
+    /**
+     * Adds the update of the player hosting the room.
+     * @param update the update
+     */
+    public void addHostUpdate(PlayerUpdate update) {
+        updates.put(update.getPlayerId(), update);
+    }
+
+    /**
+     * Sends every update to the clients once all players have sent theirs. Players who have
+     * left are not waited for, their robots are powered down instead.
+     * @return true of all players received
+     */
+    public boolean checkIfAllPlayersReceived() {
+        for (int playerId : departed)
+            updates.putIfAbsent(playerId, new PlayerUpdate(playerId, true, true, new int[0]));
+        boolean ready = capacity == updates.size();
+        if (ready) {
+            broadcast(Protocol.encodeSignal(Protocol.ALL_PLAYERS_RECEIVED));
+            broadcast(Protocol.encodeUpdates(getPlayerUpdates()));
+        }
+        return ready;
+    }
+
+    /**
+     * Gets the updates that have been received from the clients. Waits a short while
+     * if none have arrived yet, so it can be called in a loop without spinning.
+     */
+    public void receivePlayersFromClients() {
+        try {
+            PlayerUpdate update = receivedUpdates.poll(RECEIVE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            while (update != null) {
+                // A player who sends again replaces their earlier update
+                updates.put(update.getPlayerId(), update);
+                update = receivedUpdates.poll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the next client waiting for a snapshot, or null if there is none
+     */
+    public ClientHandler pollSnapshotRequest() {
+        return snapshotRequests.poll();
+    }
+}
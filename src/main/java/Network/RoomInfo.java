@@ -0,0 +1,87 @@
+package Network;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * What the room directory tells a client about a room.
+ */
+public class RoomInfo {
+    private final int roomId;
+    private final String name;
+    private final int players;
+    private final int capacity;
+    private final boolean started;
+
+    public RoomInfo(int roomId, String name, int players, int capacity, boolean started) {
+        this.roomId = roomId;
+        this.name = name;
+        this.players = players;
+        this.capacity = capacity;
+        this.started = started;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of players in the room, including a player hosting it
+     */
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return true if the room is full and the match has started
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    @Override
+    public String toString() {
+        return roomId + ": " + name + " (" + players + "/" + capacity + (started ? ", started)" : ")");
+    }
+
+    private byte[] encodedName() {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    int encodedSize() {
+        return Integer.BYTES + 3 + Short.BYTES + encodedName().length;
+    }
+
+    void write(ByteBuffer buffer) {
+        byte[] encodedName = encodedName();
+        buffer.putInt(roomId);
+        buffer.put((byte) players);
+        buffer.put((byte) capacity);
+        buffer.put((byte) (started ? 1 : 0));
+        buffer.putShort((short) encodedName.length);
+        buffer.put(encodedName);
+    }
+
+    static RoomInfo read(ByteBuffer buffer) {
+        try {
+            int roomId = buffer.getInt();
+            int players = buffer.get() & 0xFF;
+            int capacity = buffer.get() & 0xFF;
+            boolean started = buffer.get() != 0;
+            byte[] encodedName = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(encodedName);
+            return new RoomInfo(roomId, new String(encodedName, StandardCharsets.UTF_8), players, capacity, started);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Room info is cut short", e);
+        }
+    }
+}
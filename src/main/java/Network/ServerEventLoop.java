@@ -0,0 +1,191 @@
+package Network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A single thread that serves every connection of the server with a selector. Sockets are
+ * non-blocking, so a slow client never stalls the others, and no thread is needed per socket.
+ * Complete frames are handed to a {@link Listener}, which runs on the event loop thread.
+ */
+public class ServerEventLoop implements Runnable {
+
+    /**
+     * Receives the events of the event loop.
+     */
+    public interface Listener {
+        /**
+         * A new client has connected.
+         * @param client the client
+         * @throws IOException if the client should be disconnected
+         */
+        void connected(ClientHandler client) throws IOException;
+
+        /**
+         * A complete frame has been received from a client.
+         * @param client the client
+         * @param frame the payload of the frame
+         * @throws IOException if the client should be disconnected
+         */
+        void frameReceived(ClientHandler client, byte[] frame) throws IOException;
+
+        /**
+         * A client has disconnected.
+         * @param client the client
+         */
+        void disconnected(ClientHandler client);
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Listener listener;
+    // Clients with frames queued from other threads, waiting to be written by the event loop
+    private final ConcurrentLinkedQueue<ClientHandler> pendingWrites = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    public ServerEventLoop(int port, Listener listener) throws IOException {
+        this.listener = listener;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * @return the port the server is listening on
+     * @throws IOException .
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Starts the event loop on a new thread.
+     * @return the thread
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "RoboreliableServer");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Stops the event loop and closes every connection.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Queues a frame for a client. Can be called from any thread.
+     * @param client the client
+     * @param frame the payload of the frame
+     */
+    public void send(ClientHandler client, byte[] frame) {
+        client.enqueue(frame);
+        pendingWrites.add(client);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                ClientHandler pending;
+                while ((pending = pendingWrites.poll()) != null) {
+                    write(pending);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    ClientHandler client = (ClientHandler) key.attachment();
+                    if (key.isReadable())
+                        read(client);
+                    if (key.isValid() && key.isWritable())
+                        write(client);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() {
+        ClientHandler client = null;
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null)
+                return;
+            channel.configureBlocking(false);
+            client = new ClientHandler(channel, this);
+            client.setKey(channel.register(selector, SelectionKey.OP_READ, client));
+            listener.connected(client);
+        } catch (IOException e) {
+            System.out.println(e);
+            if (client != null)
+                close(client);
+        }
+    }
+
+    private void read(ClientHandler client) {
+        try {
+            for (byte[] frame : client.readFrames()) {
+                listener.frameReceived(client, frame);
+            }
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    private void write(ClientHandler client) {
+        if (!client.isOpen())
+            return;
+        try {
+            boolean done = client.flush();
+            int ops = SelectionKey.OP_READ | (done ? 0 : SelectionKey.OP_WRITE);
+            client.getKey().interestOps(ops);
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    private void close(ClientHandler client) {
+        if (!client.isOpen())
+            return;
+        client.close();
+        listener.disconnected(client);
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof ClientHandler)
+                close((ClientHandler) key.attachment());
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package Network;
+
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.StateListener;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+/**
+ * Runs on the host, which has the authoritative state of the game. Numbers every change
+ * the rules engine makes and sends it to the clients, and answers clients asking for a snapshot.
+ * Must be used from the game thread.
+ */
+public class StateBroadcaster implements StateListener {
+    private final GameState state;
+    private int version = 0;
+
+    public StateBroadcaster(GameState state) {
+        this.state = state;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void robotChanged(Robot robot) {
+        broadcast(StateDelta.robot(robot));
+    }
+
+    @Override
+    public void flagVisited(AbstractPlayer player, Flag flag) {
+        broadcast(StateDelta.flagVisited(player, flag));
+    }
+
+    private void broadcast(StateDelta delta) {
+        version++;
+        RoboreliableServer.broadcast(Protocol.encodeDelta(version, delta));
+    }
+
+    /**
+     * Sends a snapshot of the state to every client that has asked for one.
+     */
+    public void sendRequestedSnapshots() {
+        ClientHandler client = RoboreliableServer.pollSnapshotRequest();
+        if (client == null)
+            return;
+        byte[] snapshot = Protocol.encodeSnapshot(StateSnapshot.of(state, version));
+        while (client != null) {
+            client.send(snapshot);
+            client = RoboreliableServer.pollSnapshotRequest();
+        }
+    }
+}
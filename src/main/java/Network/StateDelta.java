@@ -0,0 +1,153 @@
+package Network;
+
+import inf112.skeleton.app.Direction;
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A single change to the state of the game, such as "robot 2 moved to (4,5) facing RIGHT"
+ * or "player 3 visited flag 2". Sent by the server so clients can update their state in place.
+ */
+public class StateDelta {
+    public static final byte ROBOT = 1;
+    public static final byte FLAG_VISITED = 2;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final byte type;
+    private final int playerId;
+    // Robot changes
+    private final int x;
+    private final int y;
+    private final Direction direction;
+    private final int damageTokens;
+    private final int lifeTokens;
+    private final boolean destroyed;
+    // Flag changes
+    private final int flagNumber;
+
+    private StateDelta(byte type, int playerId, int x, int y, Direction direction, int damageTokens, int lifeTokens, boolean destroyed, int flagNumber) {
+        this.type = type;
+        this.playerId = playerId;
+        this.x = x;
+        this.y = y;
+        this.direction = direction;
+        this.damageTokens = damageTokens;
+        this.lifeTokens = lifeTokens;
+        this.destroyed = destroyed;
+        this.flagNumber = flagNumber;
+    }
+
+    /**
+     * @param robot the robot that has changed
+     * @return a delta with the whole state of the robot
+     */
+    public static StateDelta robot(Robot robot) {
+        Location location = robot.getLocation();
+        return new StateDelta(ROBOT, robot.getOwner().getPlayerId(), location.getX(), location.getY(), robot.getDirection(),
+                robot.getDamageTokens(), robot.getLifeTokens(), robot.getIsDestroyed(), 0);
+    }
+
+    /**
+     * @param player the player that visited the flag
+     * @param flag the flag
+     * @return a delta for the visit
+     */
+    public static StateDelta flagVisited(AbstractPlayer player, Flag flag) {
+        return new StateDelta(FLAG_VISITED, player.getPlayerId(), 0, 0, null, 0, 0, false, flag.getFlagNumber());
+    }
+
+    /**
+     * Applies the change to the local copy of the game.
+     * @param engine the rules engine of the local copy
+     */
+    public void applyTo(RulesEngine engine) {
+        AbstractPlayer player = engine.getState().getPlayer(playerId);
+        if (player == null)
+            return;
+        if (type == ROBOT)
+            engine.restoreRobot(player.getRobot(), Location.of(x, y), direction, damageTokens, lifeTokens, destroyed);
+        else
+            engine.restoreVisitedFlag(player, flagNumber);
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public int getFlagNumber() {
+        return flagNumber;
+    }
+
+    /**
+     * @return the number of bytes the delta takes on the wire
+     */
+    int encodedSize() {
+        return type == ROBOT ? 10 : 3;
+    }
+
+    void write(ByteBuffer buffer) {
+        buffer.put(type);
+        buffer.put((byte) playerId);
+        if (type == ROBOT) {
+            buffer.putShort((short) x);
+            buffer.putShort((short) y);
+            buffer.put((byte) direction.ordinal());
+            buffer.put((byte) damageTokens);
+            buffer.put((byte) lifeTokens);
+            buffer.put((byte) (destroyed ? 1 : 0));
+        } else {
+            buffer.put((byte) flagNumber);
+        }
+    }
+
+    /**
+     * Reads a delta written by {@link #write(ByteBuffer)}.
+     * @param buffer the buffer to read from
+     * @return the delta
+     * @throws IllegalArgumentException if the buffer does not hold a valid delta
+     */
+    static StateDelta read(ByteBuffer buffer) {
+        try {
+            byte type = buffer.get();
+            int playerId = buffer.get() & 0xFF;
+            if (type == FLAG_VISITED)
+                return new StateDelta(type, playerId, 0, 0, null, 0, 0, false, buffer.get() & 0xFF);
+            if (type != ROBOT)
+                throw new IllegalArgumentException("Unknown delta " + type);
+            int x = buffer.getShort();
+            int y = buffer.getShort();
+            int direction = buffer.get() & 0xFF;
+            if (direction >= DIRECTIONS.length)
+                throw new IllegalArgumentException("Unknown direction " + direction);
+            int damageTokens = buffer.get();
+            int lifeTokens = buffer.get();
+            boolean destroyed = buffer.get() != 0;
+            return new StateDelta(type, playerId, x, y, DIRECTIONS[direction], damageTokens, lifeTokens, destroyed, 0);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("State delta is cut short", e);
+        }
+    }
+}
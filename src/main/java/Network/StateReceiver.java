@@ -0,0 +1,74 @@
+package Network;
+
+import inf112.skeleton.app.game.RulesEngine;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs on a client. Keeps the deltas and snapshots received from the server until the game
+ * applies them, and asks for a snapshot when a delta has been missed.
+ */
+public class StateReceiver {
+    private final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final Runnable snapshotRequest;
+    // The version of the last change applied to the local state
+    private int version = 0;
+    private boolean awaitingSnapshot = false;
+
+    /**
+     * @param snapshotRequest asks the server for a snapshot
+     */
+    public StateReceiver(Runnable snapshotRequest) {
+        this.snapshotRequest = snapshotRequest;
+    }
+
+    /**
+     * Keeps a delta or snapshot until it is applied. Can be called from any thread.
+     * @param frame the message
+     */
+    public void received(byte[] frame) {
+        pending.add(frame);
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Applies the received changes to the local state, in the order the server made them.
+     * Must be called from the game thread.
+     * @param engine the rules engine of the local copy
+     * @throws IOException if a message is invalid
+     */
+    public void applyPending(RulesEngine engine) throws IOException {
+        byte[] frame;
+        while ((frame = pending.poll()) != null) {
+            if (Protocol.getType(frame) == Protocol.SNAPSHOT) {
+                StateSnapshot snapshot = Protocol.decodeSnapshot(frame);
+                if (snapshot.getVersion() >= version) {
+                    snapshot.applyTo(engine);
+                    version = snapshot.getVersion();
+                    awaitingSnapshot = false;
+                }
+                continue;
+            }
+
+            int deltaVersion = Protocol.decodeDeltaVersion(frame);
+            if (deltaVersion <= version)
+                continue;
+            if (deltaVersion == version + 1 && !awaitingSnapshot) {
+                Protocol.decodeDelta(frame).applyTo(engine);
+                version = deltaVersion;
+            } else if (!awaitingSnapshot) {
+                // A change has been missed, so the rest can not be applied until we have a snapshot
+                awaitingSnapshot = true;
+                snapshotRequest.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package Network;
+
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The whole state of the robots and visited flags at a version. Sent to a client that has
+ * missed a delta, instead of the deltas it missed.
+ */
+public class StateSnapshot {
+    private final int version;
+    private final List<StateDelta> deltas;
+
+    public StateSnapshot(int version, List<StateDelta> deltas) {
+        this.version = version;
+        this.deltas = deltas;
+    }
+
+    /**
+     * @param state the state of the game
+     * @param version the version of the state
+     * @return a snapshot of the state
+     */
+    public static StateSnapshot of(GameState state, int version) {
+        ArrayList<StateDelta> deltas = new ArrayList<>();
+        for (AbstractPlayer player : state.getPlayers()) {
+            deltas.add(StateDelta.robot(player.getRobot()));
+            for (Flag flag : player.getVisitedFlags())
+                deltas.add(StateDelta.flagVisited(player, flag));
+        }
+        return new StateSnapshot(version, deltas);
+    }
+
+    /**
+     * Replaces the local state of the robots and visited flags with the snapshot.
+     * @param engine the rules engine of the local copy
+     */
+    public void applyTo(RulesEngine engine) {
+        for (AbstractPlayer player : engine.getState().getPlayers())
+            player.clearVisitedFlags();
+        for (StateDelta delta : deltas)
+            delta.applyTo(engine);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<StateDelta> getDeltas() {
+        return deltas;
+    }
+}
@@ -1,34 +1,45 @@
 package inf112.skeleton.app;
 
+import Network.PlayerUpdate;
+import Network.RoboreliableClient;
 import Network.RoboreliableServer;
+import Network.StateBroadcaster;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
-import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.cards.Card;
 import inf112.skeleton.app.cards.ProgramCardDeck;
 import inf112.skeleton.app.entity.*;
+import inf112.skeleton.app.game.GameLog;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.MapData;
+import inf112.skeleton.app.game.PhaseScheduler;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.game.SimulationClock;
 import inf112.skeleton.app.player.AbstractPlayer;
 import inf112.skeleton.app.player.TestPlayer;
+import inf112.skeleton.app.screens.Assets;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * The Board.java class is responsible for creating the board and displaying a graphical
  * representation to the users screen. It also serves the purpose of registering input from the keyboard
- * for testing purposes.
+ * for testing purposes. The rules of the game are handled by a {@link RulesEngine}, and the board
+ * renders the {@link GameState} that the engine owns.
  */
 public class Board extends InputAdapter implements IBoard {
     private SpriteBatch batch;
@@ -40,180 +51,172 @@ public class Board extends InputAdapter implements IBoard {
 
     public OrthogonalTiledMapRenderer renderer;
 
-    public static final int MAP_SIZE_X = 12;
-    public static final int MAP_SIZE_Y = 12;
+    // The number of tiles the camera view is laid out for, which is the size of the official boards
+    private static final float VIEW_TILES = 12;
 
     private TiledMapTileLayer.Cell robotCell, robotWonCell, robotDiedCell, robotUpCell, robotDownCell, robotRightCell, robotLeftCell;
+    // Draws the robots, changing only the cells of robots that have changed
+    private RobotLayer robotSprites;
+    // Moving robots are drawn by the animator until the next step of the clock
+    private final RobotAnimator animator = new RobotAnimator();
+    private final Predicate<Robot> animated = animator::isMoving;
+    private TextureRegion robotRegion;
 
-    // lists of players and entities
-    // the list of players can be used to get the robots
-    protected ArrayList<AbstractPlayer> players;
+    // Each step of the clock executes one register
+    public static final float PHASE_SECONDS = 1;
+    private final SimulationClock clock = new SimulationClock(PHASE_SECONDS);
 
-    // List of robots that have been destroyed and are yet to respawn
-    protected ArrayList<Robot> destroyedRobots = new ArrayList<>();
-
-    // Entities
-    protected ArrayList<Flag> flags = new ArrayList<>();
-    protected ArrayList<Hole> holes = new ArrayList<>();
+    // The rules of the game and the state they act on
+    private final RulesEngine engine;
+    private final GameState state;
 
     int playerId;
     // The player this instance of the game is responsible for during online play
     private AbstractPlayer networkPlayer;
-    // The player that is in the front of the PhaseQueue at start of a phase
-    protected AbstractPlayer activePlayer;
-    protected Location activePlayerInitialRobotLocation;
+    // Sends the changes to the state to the clients, when this instance is the host
+    private StateBroadcaster stateBroadcaster;
 
     protected boolean turnIsOver = true;
     private boolean hasStartedMoving = false;
 
-    private PriorityQueue<AbstractPlayer> phaseQueue;
-
-    // cards
-    public ProgramCardDeck programCardDeck;
-
     private boolean playingOnline;
 
     public boolean needsCleanup = false;
 
-    public int time = 1; // tracks time in game.
-    int round = 1; // round Nr
-
     public static boolean firstRender = true;
 
     public int counter;
 
     public Board(ArrayList<AbstractPlayer> players, Map map) {
-        this.players = players;
         this.selectedMap = Objects.requireNonNullElseGet(map, () -> new Map("Dizzy Highway", 1));
-        initializeBoard();
+        this.state = new GameState(players, MapData.load(selectedMap.getFileName()));
+        this.engine = new RulesEngine(state);
+        // The cards of the game are shuffled from this seed, so the game can be played again
+        GameLog.println("Game seed " + state.getRandom().getSeed());
     }
 
-    public Board(ArrayList<AbstractPlayer> players, Map map, boolean playingOnline, int playerId) {
-        this.players = players;
+    /**
+     * Creates a board for an online game. Every player's board is created with the same seed,
+     * so the cards are the same in every copy of the game.
+     */
+    public Board(ArrayList<AbstractPlayer> players, Map map, boolean playingOnline, int playerId, long gameSeed) {
         this.selectedMap = Objects.requireNonNullElseGet(map, () -> new Map("Dizzy Highway", 1));
+        this.state = new GameState(players, MapData.load(selectedMap.getFileName()), gameSeed);
+        this.engine = new RulesEngine(state);
         this.playingOnline = playingOnline;
         this.playerId = playerId;
         this.networkPlayer = players.get(playerId - 1);
-        initializeBoard();
+        if (playingOnline && networkPlayer.getIsHost()) {
+            stateBroadcaster = new StateBroadcaster(state);
+            engine.setListener(stateBroadcaster);
+        }
     }
 
+    /**
+     * Creates a board where the given flags are used instead of the flags of the map.
+     */
     public Board(ArrayList<AbstractPlayer> players, Map map, ArrayList<Flag> flags) {
-        this.players = players;
         this.selectedMap = Objects.requireNonNullElseGet(map, () -> new Map("Dizzy Highway", 1));
-        this.flags = flags;
-        initializeBoard();
+        this.state = new GameState(players, MapData.load(selectedMap.getFileName()));
+        this.engine = new RulesEngine(state);
+        state.setFlags(flags);
     }
 
+    /**
+     * Creates a board without players on the default map.
+     */
     public Board() {
+        this(new ArrayList<>(), null);
     }
 
     @Override
     public int getMAP_SIZE_X() {
-        return MAP_SIZE_X;
+        return state.getWidth();
     }
 
     @Override
     public int getMAP_SIZE_Y() {
-        return MAP_SIZE_Y;
+        return state.getHeight();
     }
 
     /**
-     * Initializes the camera and renderer as well as sets the textures for the map and various
-     * layers. Also assigns the textures of the player sprite.
+     * Initializes the board with the assets of the running game.
      */
     @Override
     public void create() {
-        initializeBoard();
-        Gdx.input.setInputProcessor(this);
+        create(((RoboRally) Gdx.app.getApplicationListener()).getAssets());
     }
 
-    private void initializeBoard() {
+    /**
+     * Initializes the camera and renderer as well as sets the textures for the map and various
+     * layers. Also assigns the textures of the player sprite. The map and sprites are the ones
+     * the assets have loaded, and are disposed with the assets.
+     * @param assets the assets of the game
+     */
+    public void create(Assets assets) {
+        initializeBoard(assets.getTiledMap(selectedMap), assets.getAtlas());
+    }
+
+    private void initializeBoard(TiledMap tiledMap, TextureAtlas atlas) {
         batch = new SpriteBatch();
         font = new BitmapFont();
         font.setColor(Color.RED);
 
         // Sets the map and various layers
-        map = new TmxMapLoader().load(selectedMap.getFileName());
+        map = tiledMap;
         boardLayer = (TiledMapTileLayer) map.getLayers().get("gameboard.tmx");
         robotLayer = (TiledMapTileLayer) map.getLayers().get("player");
         flagLayer = (TiledMapTileLayer) map.getLayers().get("flag");
         holeLayer = (TiledMapTileLayer) map.getLayers().get("hole");
 
-        // Initializes camera
+        // Initializes camera. The view is made for the official 12x12 boards, and is scaled
+        // so larger boards fit as well. The renderer only draws the tiles inside the view.
+        float scale = Math.max(1, Math.max(getMAP_SIZE_X(), getMAP_SIZE_Y()) / VIEW_TILES);
         OrthographicCamera camera = new OrthographicCamera();
-        camera.setToOrtho(false, 26, 9);
-        camera.viewportHeight = (float) 15.4;
-        camera.viewportWidth = (float) 26.6;
+        camera.setToOrtho(false, 26 * scale, 9 * scale);
+        camera.viewportHeight = (float) 15.4 * scale;
+        camera.viewportWidth = (float) 26.6 * scale;
         camera.update();
 
         // Initializes renderer
         renderer = new OrthogonalTiledMapRenderer(map, (float) 1 / 300);
         renderer.setView(camera);
-
-        // Splits the textures of the player into different states and sets them to the given Cell
-        TextureRegion[][] robotTextures = TextureRegion.split(new Texture("assets/player.png"), 300, 300);
-        robotCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][0]));
-        robotDiedCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][1]));
-        robotWonCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][2]));
-        robotUpCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][0])).setRotation(0);
-        robotLeftCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][0])).setRotation(1);
-        robotDownCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][0])).setRotation(2);
-        robotRightCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotTextures[0][0])).setRotation(3);
-        // Active player
-        activePlayer = players.get(0);
-        assert activePlayer != null;
-        activePlayerInitialRobotLocation = activePlayer.getRobot().getLocation();
-        phaseQueue = new PriorityQueue<>(Collections.reverseOrder());
-
-        // cards
-        programCardDeck = new ProgramCardDeck();
-
-        setFlags();
-        setHoles();
+        setSprites(atlas);
+        assert getActivePlayer() != null;
 
         renderer.render();
         Gdx.input.setInputProcessor(this);
     }
 
-    public void setHoles() {
-        for (int x = 0; x < getMAP_SIZE_X(); x++) {
-            for (int y = 0; y < getMAP_SIZE_Y(); y++) {
-                if (holeLayer.getCell(x, y) != null) {
-                    holes.add(new Hole(new Location(x, y)));
-                }
-            }
-        }
-    }
-
-    public void setFlags() {
-        for (int x = 0; x < getMAP_SIZE_X(); x++) {
-            for (int y = 0; y < getMAP_SIZE_Y(); y++) {
-                if (flagLayer.getCell(x, y) != null) {
-                    int flagIndex = flagLayer.getCell(x, y).getTile().getId();
-                    switch (flagIndex) {
-                        case 55:
-                            flagIndex = 1;
-                            break;
-                        case 63:
-                            flagIndex = 2;
-                            break;
-                        case 71:
-                            flagIndex = 3;
-                            break;
-                        case 79:
-                            flagIndex = 4;
-                            break;
-                    }
-                    flags.add(new Flag(flagIndex, new Location(x, y)));
-                }
-            }
-        }
+    /**
+     * Sets the robot sprites from the game atlas. The robots are drawn from the same texture
+     * as the HUD, and every robot state shares one texture region.
+     * @param atlas the game atlas
+     */
+    private void setSprites(TextureAtlas atlas) {
+        robotRegion = atlas.findRegion("robot");
+        robotCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotRegion));
+        robotDiedCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(atlas.findRegion("robotDied")));
+        robotWonCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(atlas.findRegion("robotWon")));
+        robotUpCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotRegion)).setRotation(0);
+        robotLeftCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotRegion)).setRotation(1);
+        robotDownCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotRegion)).setRotation(2);
+        robotRightCell = new TiledMapTileLayer.Cell().setTile(new StaticTiledMapTile(robotRegion)).setRotation(3);
+
+        EnumMap<RobotLayer.Sprite, TiledMapTileLayer.Cell> robotCells = new EnumMap<>(RobotLayer.Sprite.class);
+        robotCells.put(RobotLayer.Sprite.UP, robotUpCell);
+        robotCells.put(RobotLayer.Sprite.DOWN, robotDownCell);
+        robotCells.put(RobotLayer.Sprite.LEFT, robotLeftCell);
+        robotCells.put(RobotLayer.Sprite.RIGHT, robotRightCell);
+        robotCells.put(RobotLayer.Sprite.DIED, robotDiedCell);
+        robotCells.put(RobotLayer.Sprite.WON, robotWonCell);
+        robotSprites = new RobotLayer(robotLayer, robotCells);
     }
 
     @Override
     public void startNewRound() {
 
-        System.out.println("Starting new round...");
+        GameLog.println("Starting new round...");
         if (!playingOnline) {
             startNewRoundOffline();
         } else {
@@ -224,24 +227,26 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public void startNewRoundOffline() {
-        round++;
-        for (AbstractPlayer player : players) {
-            putHandBackToDeck(player);
-            dealCardsToPlayer(player);
-        }
+        engine.startNewRound();
     }
 
     @Override
     public void startNewRoundOnline() {
-        if (networkPlayer.getIsHost()) {
-            RoboreliableServer.players = new ArrayList<>();
+        // Every copy of the game deals the same hands from the host's round seed, so only
+        // the programmed registers have to be sent
+        try {
+            long roundSeed;
+            if (networkPlayer.getIsHost()) {
+                RoboreliableServer.newRound();
+                roundSeed = RoboreliableServer.sendRoundSeed();
+            } else {
+                roundSeed = RoboreliableClient.getRoundSeed();
+            }
+            engine.startNewRound(roundSeed);
+        } catch (IOException e) {
+            System.out.println(e);
         }
-        round++;
-        putHandBackToDeck(networkPlayer);
-        dealCardsToPlayer(networkPlayer);
-       // sendNetworkPlayerToServer();
-       // updatePlayersFromServer();
-        for (AbstractPlayer player : players) {
+        for (AbstractPlayer player : getPlayers()) {
             player.getRobot().getRegister().printDeck();
         }
         assignNetworkPlayer();
@@ -250,27 +255,39 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public void setActivePlayerRobotLocation(Location newLocation, boolean testing) {
-        int x = activePlayer.getRobot().getLocation().getX();
-        int y = activePlayer.getRobot().getLocation().getY();
-
-        if (!testing)
-            robotLayer.setCell(x, y, null);
-
-        activePlayer.getRobot().setLocation(newLocation);
+        engine.moveRobot(getActivePlayer().getRobot(), newLocation);
     }
 
     @Override
     public void setActivePlayer(AbstractPlayer newPlayer) {
-        activePlayer = newPlayer;
+        state.setActivePlayer(newPlayer);
     }
 
     @Override
     public AbstractPlayer getActivePlayer() {
-        return activePlayer;
+        return state.getActivePlayer();
     }
 
-    public PriorityQueue<AbstractPlayer> getPhaseQueue() {
-        return phaseQueue;
+    public PhaseScheduler getPhaseQueue() {
+        return state.getPhaseQueue();
+    }
+
+    /**
+     * @return the rules engine of the game
+     */
+    public RulesEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return the state the board renders
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    public ProgramCardDeck getProgramCardDeck() {
+        return state.getProgramCardDeck();
     }
 
     public void sendNetworkPlayerToServer() {
@@ -283,9 +300,7 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public void switchActivePlayer() {
-        if (phaseQueue.peek() != null) {
-            setActivePlayer(phaseQueue.peek());
-        }
+        engine.switchActivePlayer();
     }
 
     @Override
@@ -294,18 +309,11 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public void dealCardsToPlayer(AbstractPlayer player) {
-        programCardDeck.shuffle();
-        programCardDeck.dealCard(player, 9);
+        engine.dealCardsToPlayer(player);
     }
 
     public void putHandBackToDeck(AbstractPlayer player) {
-        int cardsLeftOverInHand = player.getHandSize();
-        if (cardsLeftOverInHand > 0) {
-            for (int i = 0; i < cardsLeftOverInHand; i++) {
-                programCardDeck.addToTopOfDeck(player.getHand().getCard(0));
-                player.getHand().remove(0);
-            }
-        }
+        engine.putHandBackToDeck(player);
     }
     /*
     @Override
@@ -333,7 +341,7 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public void assignNetworkPlayer() {
-        for (AbstractPlayer player : players) {
+        for (AbstractPlayer player : getPlayers()) {
             if (player.getPlayerId() == this.playerId) {
                 networkPlayer = player;
                 return;
@@ -343,27 +351,26 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public void executeNextRobotRegister() {
-        AbstractPlayer player = phaseQueue.poll();
+        AbstractPlayer player = getPhaseQueue().peek();
         assert player != null;
         Robot robot = player.getRobot();
-        assert robot.getRegister().getSize() > 0;
-        int x = robot.getLocation().getX();
-        int y = robot.getLocation().getY();
-        robotLayer.setCell(x, y, null);
-        System.out.println("DeckSize: " + programCardDeck.getSize());
-        System.out.println("Register: " + robot.getRegister().getSize());
-        System.out.println(player.getName() + " Execute register " + robot.getNextRegisterCard().getCardValue());
-        // Ensures empty cards are not placed back in card deck
-        if (!(robot.getNextRegisterCard().cardValue == CardValue.PD))
-            programCardDeck.addToTopOfDeck(robot.getNextRegisterCard());
-        robot.executeNext();
+        GameLog.println(player.getName() + " Execute register " + robot.getNextRegisterCard().getCardValue());
+        engine.executeNextRobotRegister();
+    }
+
+    @Override
+    public AbstractPlayer executePhase() {
+        AbstractPlayer player = getPhaseQueue().peek();
+        assert player != null;
+        GameLog.println(player.getName() + " Execute register " + player.getRobot().getNextRegisterCard().getCardValue());
+        return engine.executePhase();
     }
 
     @Override
-    public void gameLoop() {
-        System.out.println("render count " + counter);
+    public void gameLoop(float delta) {
+        GameLog.println("render count " + counter);
         // if all robots have performed their phase
-        if (phaseQueue.isEmpty()) {
+        if (getPhaseQueue().isEmpty()) {
             if (registersAreEmpty()) {
                 if (!needsCleanup) {
                     startNewRound();
@@ -375,83 +382,125 @@ public class Board extends InputAdapter implements IBoard {
             } else {
                 updatePhaseQueue();
             }
-        } else if (readyCheck()) {
-            if (time % 60 == 0) {
-                switchActivePlayer();
-                executeNextRobotRegister();
-                checkIfActivePlayerOnFlag();
-            }
-            if (activePlayerOnHole()) {
-                robotHoleEvent();
-            }
-            if (checkIfWon()) {
-                System.out.println("Player won!");
-                System.out.close();
-            }
         }
-        time++;
+        if (executeSteps(delta, null)) {
+            GameLog.println("Player won!");
+            System.out.close();
+        }
     }
 
-    public void cleanup() {
-        getActivePlayer().setReady(false);
-        spawnRobots(destroyedRobots);
+    /**
+     * Told about every register the clock executes.
+     */
+    public interface StepListener {
+        /**
+         * @param player the player whose register was executed
+         * @param card the card of the register
+         */
+        void registerExecuted(AbstractPlayer player, Card card);
     }
 
-    public boolean readyCheck() {
-        for (AbstractPlayer player : players) {
-            if (player.getRobot().getRegister().getSize() >= 1) {
+    /**
+     * Executes the registers that are due on the steps of the clock, so the pace of the game
+     * does not depend on the frame rate. A sped up clock can run several phases in one frame.
+     * Robots that moved are animated until the next step.
+     * @param delta the time since the last frame, in seconds
+     * @param listener told about every register executed, or null
+     * @return true if a player has won
+     */
+    public boolean executeSteps(float delta, StepListener listener) {
+        int steps = clock.advance(delta);
+        while (steps > 0 && !getPhaseQueue().isEmpty()) {
+            Card card = getPhaseQueue().peek().getRobot().getNextRegisterCard();
+            AbstractPlayer player = executePhase();
+            if (listener != null)
+                listener.registerExecuted(player, card);
+            captureRobotStates();
+            steps--;
+            if (checkIfWon())
                 return true;
-            }
+            if (getPhaseQueue().isEmpty() && !registersAreEmpty())
+                updatePhaseQueue();
         }
+        // Robots that did not move on a step stop being animated
+        if (steps > 0)
+            captureRobotStates();
         return false;
     }
 
+    /**
+     * @return the clock that paces the execution of registers
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Remembers the state of every robot after a step of the clock, so the robots that
+     * moved are animated until the next step.
+     */
+    public void captureRobotStates() {
+        animator.capture(getPlayers());
+    }
+
+    public void cleanup() {
+        engine.cleanup();
+    }
+
+    public boolean readyCheck() {
+        return engine.readyCheck();
+    }
+
     public void updatePlayersFromServer() {
         try {
-            players = networkPlayer.getPlayersFromServer();
-        } catch (IOException | ClassNotFoundException e) {
+            for (PlayerUpdate update : networkPlayer.getPlayersFromServer()) {
+                AbstractPlayer player = state.getPlayer(update.getPlayerId());
+                if (player != null)
+                    update.applyTo(player, state.getProgramCardDeck());
+            }
+            if (!networkPlayer.getIsHost())
+                applyStateFromHost();
+        } catch (IOException e) {
             System.out.println(e);
         }
     }
 
+    /**
+     * Applies the changes the host has made to the state since the last round, so the round
+     * starts from the host's state.
+     * @throws IOException if a change from the host is invalid
+     */
+    private void applyStateFromHost() throws IOException {
+        if (!RoboreliableClient.getStateReceiver().hasPending())
+            return;
+        RoboreliableClient.getStateReceiver().applyPending(engine);
+    }
 
     /**
-     * TODO
-     *
-     * @return
+     * @return true if every robot has an empty register
      */
     public boolean registersAreEmpty() {
-        for (AbstractPlayer player : players) {
-            if (!player.getRobot().registerIsEmpty()) {
-                return false;
-            }
-        }
-        return true;
+        return engine.registersAreEmpty();
     }
 
     @Override
     public void updatePhaseQueue() {
-        if (allPlayersReady()) {
-            for (AbstractPlayer player : players) {
-                if (!player.getRobot().getIsDestroyed()) {
-                    phaseQueue.add(player);
-                    //System.out.println("The priority value of " + player.getName() + "'s first card is: " + player.getRobot().getNextRegisterCard().getPriorityValue());
-                }
-            }
-        }
+        engine.updatePhaseQueue();
     }
 
     @Override
     public void render() {
         Gdx.gl.glClearColor(1, 1, 1, 1);
         Gdx.gl.glClear(GL30.GL_COLOR_BUFFER_BIT);
+        if (stateBroadcaster != null)
+            stateBroadcaster.sendRequestedSnapshots();
         renderPlayerTextures();
         renderer.render();
         if (!firstRender) {
-            if (!(activePlayer instanceof TestPlayer)) {
-                gameLoop();
+            if (!(getActivePlayer() instanceof TestPlayer)) {
+                gameLoop(Gdx.graphics.getDeltaTime());
             } else {
-                spawnRobots(destroyedRobots);
+                spawnRobots(getState().getDestroyedRobots());
                 checkIfTurnIsOver();
                 checkIfActivePlayerOnFlag();
                 if (activePlayerOnHole()) {
@@ -462,84 +511,52 @@ public class Board extends InputAdapter implements IBoard {
         }
         renderPlayerTextures();
         renderer.render();
+        renderRobotAnimations();
         firstRender = false;
     }
 
     @Override
     public void renderPlayerTextures() {
-        for (AbstractPlayer player : players) {
-            int x = player.getRobot().getLocation().getX();
-            int y = player.getRobot().getLocation().getY();
-            Direction dir = player.getRobot().getDirection();
-
-            if (checkIfWon()) {
-                robotLayer.setCell(x, y, robotWonCell);
-            } else if (player.getRobot().getIsDestroyed()) {
-                robotLayer.setCell(x, y, robotDiedCell);
-            } else {
-                if (dir == Direction.DOWN) {
-                    robotLayer.setCell(x, y, robotDownCell);
-                } else if (dir == Direction.RIGHT) {
-                    robotLayer.setCell(x, y, robotRightCell);
-                } else if (dir == Direction.LEFT) {
-                    robotLayer.setCell(x, y, robotLeftCell);
-                } else {
-                    robotLayer.setCell(x, y, robotUpCell);
-                }
-            }
-        }
+        robotSprites.render(getPlayers(), checkIfWon(), animated);
     }
 
     @Override
-    public void checkIfActivePlayerOnFlag() {
-        for (Flag flag : flags) {
-            if (flag.getLocation().equals(activePlayer.getRobot().getLocation()))
-                if (canVisitFlag(flag)) {
-                    activePlayer.addToVisitedFlags(flag);
-                    updateArchiveMarker(flag.getLocation());
-                }
-        }
+    public void renderRobotAnimations() {
+        animator.draw(renderer.getBatch(), getPlayers(), clock.getAlpha(), robotRegion);
     }
 
-    public void dealDamage(Robot robot, int amount) {
-        robot.dealDamageToken(amount);
-        if (robot.getDamageTokens() >= 10) destroyRobot(robot);
-
+    @Override
+    public void checkIfActivePlayerOnFlag() {
+        engine.checkIfActivePlayerOnFlag();
     }
 
-    private void destroyRobot(Robot robot) {
-        robot.destroy();
-        destroyedRobots.add(robot);
-        programCardDeck.addToDeck(robot.getRegister());
-        robot.getRegister().clear();
+    public void dealDamage(Robot robot, int amount) {
+        engine.dealDamage(robot, amount);
     }
 
     public void updateArchiveMarker(Location location) {
-        activePlayer.getRobot().setArchiveMarker(new ArchiveMarker(location));
+        engine.updateArchiveMarker(location);
     }
 
     public boolean activePlayerOnHole() {
-        for (Hole hole : holes) {
-            if (hole.getLocation().equals(activePlayer.getRobot().getLocation())) {
-                System.out.println("player on hole");
-                return true;
-            }
+        if (engine.activePlayerOnHole()) {
+            GameLog.println("player on hole");
+            return true;
         }
         return false;
     }
 
     public void robotHoleEvent() {
-        Robot robot = activePlayer.getRobot();
-        dealDamage(robot, 10);
+        engine.robotHoleEvent();
     }
 
     @Override
     public void checkIfTurnIsOver() {
         // Checks if the player is a test player
-        if (!(activePlayer instanceof TestPlayer))
+        if (!(getActivePlayer() instanceof TestPlayer))
             turnIsOver = false;
 
-        if (activePlayer.getRobot().getRegister().getSize() == 0) {
+        if (getActivePlayer().getRobot().getRegister().getSize() == 0) {
             if (hasStartedMoving) {
                 turnIsOver = true;
                 switchActivePlayer();
@@ -560,14 +577,12 @@ public class Board extends InputAdapter implements IBoard {
 
     @Override
     public boolean canVisitFlag(Flag flag) {
-        if (activePlayer.getVisitedFlags().size() > 0)
-            return flag.getFlagNumber() > activePlayer.getVisitedFlags().size();
-        return true;
+        return engine.canVisitFlag(flag);
     }
 
     @Override
     public boolean checkIfWon() {
-        return activePlayer.getVisitedFlags().size() == flags.size();
+        return engine.checkIfWon();
     }
 
     @Override
@@ -584,41 +599,24 @@ public class Board extends InputAdapter implements IBoard {
     public void dispose() {
         batch.dispose();
         font.dispose();
+        // The renderer has a batch of its own. The map and atlas are disposed with the assets.
+        renderer.dispose();
     }
 
     public boolean holeAtLocation(Location location) {
-        for (Hole hole : holes) {
-            if (hole.getLocation().equals(location)) {
-                return true;
-            }
-        }
-        return false;
+        return engine.holeAtLocation(location);
     }
 
     public boolean robotAtLocation(Location location) {
-        for (AbstractPlayer player : players) {
-            if (player.getRobot().getLocation().equals(location)) {
-                return true;
-            }
-        }
-        return false;
+        return engine.robotAtLocation(location);
     }
 
     public boolean withinBounds(Location location) {
-        int x = location.getX();
-        int y = location.getY();
-        if (x >= 0 && x < getMAP_SIZE_X()) {
-            if (y >= 0 && x < getMAP_SIZE_Y()) {
-                return true;
-            }
-        }
-        return false;
+        return engine.withinBounds(location);
     }
 
-
     public boolean validSpawnLocation(Location location) {
-        boolean hasConflictingEntity = (holeAtLocation(location) || robotAtLocation(location));
-        return ((!hasConflictingEntity) && withinBounds(location));
+        return engine.validSpawnLocation(location);
     }
 
     public Location getRelativeSpawnLocation(Location location, AbstractPlayer player) {
@@ -665,27 +663,15 @@ public class Board extends InputAdapter implements IBoard {
     }
 
     public void spawnRobots(ArrayList<Robot> spawnRobotList) {
-        for (Robot spawnRobot : spawnRobotList) {
-            robotLayer.setCell(spawnRobot.getLocation().getX(), spawnRobot.getLocation().getY(), null);
-            Location archiveMarkerLocation = spawnRobot.getArchiveMarker().getLocation();
-            spawnRobot.respawn(archiveMarkerLocation);
-        }
-        destroyedRobots.clear();
+        engine.spawnRobots();
     }
 
     public boolean allPlayersReady() {
-        for (AbstractPlayer player : players) {
-            if (!player.getReady()) {
-                return false;
-            }
-        }
-        return true;
+        return engine.allPlayersReady();
     }
 
     public void setAllPlayersNotReady() {
-        for (AbstractPlayer player : players) {
-            player.setReady(false);
-        }
+        engine.setAllPlayersNotReady();
     }
 
     public boolean getPlayingOnline() {
@@ -693,7 +679,7 @@ public class Board extends InputAdapter implements IBoard {
     }
 
     public ArrayList<AbstractPlayer> getPlayers() {
-        return players;
+        return state.getPlayers();
     }
 
 //    public attemptNetworkUpdate
@@ -713,28 +699,25 @@ public class Board extends InputAdapter implements IBoard {
      */
     @Override
     public boolean keyUp(int intCode) {
+        AbstractPlayer activePlayer = getActivePlayer();
         if (!(activePlayer instanceof TestPlayer))
             return false;
 
-        int x = activePlayer.getRobot().getLocation().getX();
-        int y = activePlayer.getRobot().getLocation().getY();
+        Location from = activePlayer.getRobot().getLocation();
 
         if (intCode == Input.Keys.UP) {
-            robotLayer.setCell(x, y, null);
             activePlayer.getRobot().moveForward(1);
         }
         if (intCode == Input.Keys.DOWN) {
-            robotLayer.setCell(x, y, null);
             activePlayer.getRobot().moveBackward(1);
         }
         if (intCode == Input.Keys.LEFT) {
-            robotLayer.setCell(x, y, null);
             activePlayer.getRobot().rotateLeft(1);
         }
         if (intCode == Input.Keys.RIGHT) {
-            robotLayer.setCell(x, y, null);
             activePlayer.getRobot().rotateRight(1);
         }
+        engine.robotMoved(from, activePlayer.getRobot());
         return false;
     }
 }
\ No newline at end of file
@@ -3,14 +3,66 @@ package inf112.skeleton.app;
 import java.io.Serializable;
 
 /**
- * An enum representing the way a given robot is facing. Includes functions for rotating the
- * direction of a robot either left or right.
+ * An enum representing the way a given robot is facing. Every direction knows the step it
+ * makes on the board, and rotations are looked up in tables instead of being worked out
+ * with switches.
  */
 public enum Direction implements Serializable {
-    UP,
-    DOWN,
-    LEFT,
-    RIGHT;
+    UP(0, 1),
+    DOWN(0, -1),
+    LEFT(-1, 0),
+    RIGHT(1, 0);
+
+    // The directions in clockwise order, so turning right is one step forward in the array
+    private static final Direction[] CLOCKWISE = {UP, RIGHT, DOWN, LEFT};
+    // ROTATIONS[direction.ordinal()][quarterTurns] is the direction after turning right quarterTurns times
+    private static final Direction[][] ROTATIONS = new Direction[values().length][4];
+
+    static {
+        for (int i = 0; i < CLOCKWISE.length; i++) {
+            for (int quarterTurns = 0; quarterTurns < 4; quarterTurns++) {
+                ROTATIONS[CLOCKWISE[i].ordinal()][quarterTurns] = CLOCKWISE[(i + quarterTurns) % 4];
+            }
+        }
+    }
+
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * @return how far one step in this direction moves along the X axis
+     */
+    public int getDx() {
+        return dx;
+    }
+
+    /**
+     * @return how far one step in this direction moves along the Y axis
+     */
+    public int getDy() {
+        return dy;
+    }
+
+    /**
+     * Turns a number of quarter turns. Positive numbers turn right, negative numbers turn left.
+     * @param quarterTurns number of quarter turns
+     * @return the new direction
+     */
+    public Direction rotate(int quarterTurns) {
+        return ROTATIONS[ordinal()][quarterTurns & 3];
+    }
+
+    /**
+     * @return the direction pointing the opposite way
+     */
+    public Direction opposite() {
+        return ROTATIONS[ordinal()][2];
+    }
 
     /**
      * Rotates the robot one step to the left.
@@ -18,21 +70,7 @@ public enum Direction implements Serializable {
      * @return The new direction the robot is facing.
      */
     public static Direction rotateLeft(Direction direction) {
-        try {
-        switch (direction) {
-            case UP:
-                return LEFT;
-            case DOWN:
-                return RIGHT;
-            case LEFT:
-                return DOWN;
-            case RIGHT:
-                return UP;
-        }
-        } catch (Exception e) {
-            System.out.println("Inexhaustible direction check.");
-            }
-        return direction;
+        return direction.rotate(-1);
     }
 
     /**
@@ -41,21 +79,7 @@ public enum Direction implements Serializable {
      * @return The new direction the robot is facing.
      */
     public static Direction rotateRight(Direction direction) {
-        try {
-            switch (direction) {
-                case UP:
-                    return RIGHT;
-                case DOWN:
-                    return LEFT;
-                case LEFT:
-                    return UP;
-                case RIGHT:
-                    return DOWN;
-            }
-        } catch (Exception e) {
-            System.out.println("Inexhaustible direction check.");
-        }
-        return direction;
+        return direction.rotate(1);
     }
 
     /**
@@ -77,4 +101,4 @@ public enum Direction implements Serializable {
                 throw new IllegalArgumentException("Invalid input");
         }
     }
-}
\ No newline at end of file
+}
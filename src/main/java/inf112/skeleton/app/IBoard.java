@@ -9,17 +9,15 @@ import inf112.skeleton.app.player.AbstractPlayer;
  */
 public interface IBoard extends ApplicationListener {
 
+    /**
+     * @return width of the board in tiles, as given by the map
+     */
     int getMAP_SIZE_X();
 
-    int getMAP_SIZE_Y();
-
     /**
-     * Initializes the flag layer. For every flag in the layer a flag class is created
-     * and a position is given corresponding the position of the texture. Has a switch
-     * case for finding out which flag it is. The values being checked for is the value
-     * of that sprite in the texture pack.
+     * @return height of the board in tiles, as given by the map
      */
-    void setFlags();
+    int getMAP_SIZE_Y();
 
     /**
      * Initializes a new round. A new round is when every card in a round has been played.
@@ -71,11 +69,19 @@ public interface IBoard extends ApplicationListener {
      */
     void executeNextRobotRegister();
 
+    /**
+     * Executes the register of the next player of the phase, and lets the robot visit a flag
+     * or fall in a hole where it ends up.
+     * @return the player whose register was executed
+     */
+    AbstractPlayer executePhase();
+
     /**
      * A function for progressing the game. This has been taken out of the render() function
      * for more clarity.
+     * @param delta the time since the last frame, in seconds
      */
-    void gameLoop();
+    void gameLoop(float delta);
 
     /**
      * Sets the active player.
@@ -135,4 +141,9 @@ public interface IBoard extends ApplicationListener {
      * these criteria.
      */
     void renderPlayerTextures();
+
+    /**
+     * Draws the robots that are moving between two steps of the game, on top of the map.
+     */
+    void renderRobotAnimations();
 }
@@ -1,20 +1,44 @@
 package inf112.skeleton.app;
 
 import java.io.Serializable;
-import java.util.Objects;
 
 /**
- * Represents a location on the board.
+ * Represents a location on the board. Locations can not be changed, so the same instance
+ * can be shared by everything standing on a cell.
  */
 public class Location implements Serializable {
-    private int x;
-    private int y;
+    // Shared locations for the cells of any board up to CACHE_SIZE x CACHE_SIZE
+    private static final int CACHE_SIZE = 128;
+    private static final Location[] cache = new Location[CACHE_SIZE * CACHE_SIZE];
+
+    private final int x;
+    private final int y;
 
     public Location(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
+    /**
+     * Returns the location with the given coordinates. Locations on the board are taken
+     * from a shared table, so moving robots around does not create new objects.
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return the location
+     */
+    public static Location of(int x, int y) {
+        if (x < 0 || y < 0 || x >= CACHE_SIZE || y >= CACHE_SIZE)
+            return new Location(x, y);
+        int index = y * CACHE_SIZE + x;
+        Location location = cache[index];
+        if (location == null) {
+            // Locations are immutable, so a race here only creates an extra instance
+            location = new Location(x, y);
+            cache[index] = location;
+        }
+        return location;
+    }
+
     /**
      * @return X coordinate
      */
@@ -30,31 +54,13 @@ public class Location implements Serializable {
     }
 
     /**
-     * Sets the new X coordinate.
-     * @param newX X coord
-     */
-    public void setX(int newX) {
-        this.x = newX;
-    }
-
-    /**
-     * Sets the new Y coordinate.
-     * @param newY Y coord
-     */
-    public void setY(int newY) {
-        this.y = newY;
-    }
-
-    /**
-     * TODO
-     * @param offsetX
-     * @param offsetY
-     * @return
+     * Gets a location relative to this one.
+     * @param offsetX offset along the X axis
+     * @param offsetY offset along the Y axis
+     * @return the location at the offset
      */
     public Location getRelativeLocation(int offsetX, int offsetY) {
-        int x = this.getX();
-        int y = this.getY();
-        return new Location(x + offsetX, y + offsetY);
+        return Location.of(x + offsetX, y + offsetY);
     }
 
     @Override
@@ -70,7 +76,7 @@ public class Location implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 
     @Override
@@ -3,6 +3,7 @@ package inf112.skeleton.app;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.assets.AssetManager;
 import inf112.skeleton.app.screens.Assets;
+import inf112.skeleton.app.screens.LoadingScreen;
 import inf112.skeleton.app.screens.MainMenuScreen;
 
 import java.util.ArrayList;
@@ -16,12 +17,12 @@ public class RoboRally extends Game {
     public Map highOctane = new Map("High Octane", 3);
     public Map sprintCramp = new Map("Sprint Cramp", 4);
     public ArrayList<Map> maps = new ArrayList<Map>();
+    private Assets assets;
 
     @Override
     public void create() {
-        Assets assets = new Assets();
+        assets = new Assets();
         assets.loadAll();
-        assets.getAssetManager().finishLoading();
 
         // Add maps
         maps.add(dizzyHighway);
@@ -29,12 +30,21 @@ public class RoboRally extends Game {
         maps.add(highOctane);
         maps.add(sprintCramp);
 
-        setScreen(new MainMenuScreen(this, assets.getAssetManager()));
+        setScreen(new LoadingScreen(this, () -> new MainMenuScreen(this, assets.getAssetManager())));
+    }
+
+    /**
+     * Returns the assets of the game, which are shared by every screen.
+     * @return assets
+     */
+    public Assets getAssets() {
+        return assets;
     }
 
     @Override
     public void dispose() {
         super.dispose();
+        assets.dispose();
     }
 
     @Override
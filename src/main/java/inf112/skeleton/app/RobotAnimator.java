@@ -0,0 +1,123 @@
+package inf112.skeleton.app;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Animates the robots between two steps of the simulation. After every step it remembers
+ * where each robot was and where it is now, and robots that moved or turned are drawn in
+ * between, based on how far the {@link inf112.skeleton.app.game.SimulationClock} is towards
+ * the next step.
+ */
+public class RobotAnimator {
+    // Robots that move further than a card can move them, ie. when respawning, are not animated
+    private static final int MAX_ANIMATED_DISTANCE = 3;
+
+    // By identity, since robots are equal when their player ids are, and Robot has no hashCode
+    private final IdentityHashMap<Robot, Motion> motions = new IdentityHashMap<>();
+
+    /**
+     * Remembers the state of every robot after a step of the simulation.
+     * @param players the players whose robots are animated
+     */
+    public void capture(List<AbstractPlayer> players) {
+        for (AbstractPlayer player : players) {
+            Robot robot = player.getRobot();
+            Motion motion = motions.get(robot);
+            if (motion == null) {
+                motion = new Motion();
+                motion.set(robot);
+                motions.put(robot, motion);
+            }
+            motion.next(robot);
+        }
+    }
+
+    /**
+     * @param robot the robot
+     * @return true if the robot is drawn by the animator instead of on the robot layer
+     */
+    public boolean isMoving(Robot robot) {
+        Motion motion = motions.get(robot);
+        return motion != null && motion.isMoving() && !robot.getIsDestroyed();
+    }
+
+    /**
+     * Draws every moving robot between its last and current state.
+     * @param batch the batch of the map renderer, where one tile is one unit
+     * @param players the players whose robots are animated
+     * @param alpha how far the simulation is towards the next step, from 0 to 1
+     * @param region the texture of a robot facing up
+     */
+    public void draw(Batch batch, List<AbstractPlayer> players, float alpha, TextureRegion region) {
+        boolean drawing = false;
+        for (AbstractPlayer player : players) {
+            Robot robot = player.getRobot();
+            if (!isMoving(robot))
+                continue;
+            if (!drawing) {
+                batch.begin();
+                drawing = true;
+            }
+            Motion motion = motions.get(robot);
+            float x = motion.fromX + (motion.toX - motion.fromX) * alpha;
+            float y = motion.fromY + (motion.toY - motion.fromY) * alpha;
+            float turn = ((motion.toAngle - motion.fromAngle + 540) % 360) - 180;
+            float angle = motion.fromAngle + turn * alpha;
+            batch.draw(region, x, y, 0.5f, 0.5f, 1, 1, 1, 1, angle);
+        }
+        if (drawing)
+            batch.end();
+    }
+
+    /**
+     * @param direction the direction a robot faces
+     * @return the counter-clockwise rotation of the robot sprite, in degrees
+     */
+    static int angleOf(Direction direction) {
+        switch (direction) {
+            case LEFT:
+                return 90;
+            case DOWN:
+                return 180;
+            case RIGHT:
+                return 270;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * The state of a robot before and after the last step.
+     */
+    private static class Motion {
+        private int fromX, fromY, fromAngle;
+        private int toX, toY, toAngle;
+
+        void set(Robot robot) {
+            toX = robot.getLocation().getX();
+            toY = robot.getLocation().getY();
+            toAngle = angleOf(robot.getDirection());
+        }
+
+        void next(Robot robot) {
+            fromX = toX;
+            fromY = toY;
+            fromAngle = toAngle;
+            set(robot);
+            if (Math.abs(toX - fromX) + Math.abs(toY - fromY) > MAX_ANIMATED_DISTANCE) {
+                fromX = toX;
+                fromY = toY;
+            }
+        }
+
+        boolean isMoving() {
+            return fromX != toX || fromY != toY || fromAngle != toAngle;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package inf112.skeleton.app;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Draws the robots on the robot layer of the map. It remembers what it last drew for every
+ * robot, and only changes the cells of robots that have moved, turned, been destroyed or won
+ * since the last render, so rendering a board where nothing happens touches no cells.
+ */
+public class RobotLayer {
+
+    /**
+     * The sprites a robot can be drawn with. A hidden robot is drawn somewhere else, and its
+     * cell is left empty.
+     */
+    public enum Sprite { UP, DOWN, LEFT, RIGHT, DIED, WON, HIDDEN }
+
+    private final TiledMapTileLayer layer;
+    private final EnumMap<Sprite, TiledMapTileLayer.Cell> cells;
+    // By identity, since robots are equal when their player ids are, and Robot has no hashCode
+    private final IdentityHashMap<Robot, DrawnRobot> drawn = new IdentityHashMap<>();
+    // Reused between renders
+    private final ArrayList<Robot> changed = new ArrayList<>();
+    private final ArrayList<Location> cleared = new ArrayList<>();
+
+    public RobotLayer(TiledMapTileLayer layer, EnumMap<Sprite, TiledMapTileLayer.Cell> cells) {
+        this.layer = layer;
+        this.cells = cells;
+    }
+
+    /**
+     * Updates the cells of every robot that has changed since the last render.
+     * @param players the players whose robots are drawn
+     * @param won true if the game is won, which draws every robot as a winner
+     * @return the number of cells that were changed
+     */
+    public int render(List<AbstractPlayer> players, boolean won) {
+        return render(players, won, robot -> false);
+    }
+
+    /**
+     * Updates the cells of every robot that has changed since the last render.
+     * @param players the players whose robots are drawn
+     * @param won true if the game is won, which draws every robot as a winner
+     * @param hidden tells which robots are drawn somewhere else, ie. while they are animated
+     * @return the number of cells that were changed
+     */
+    public int render(List<AbstractPlayer> players, boolean won, Predicate<Robot> hidden) {
+        changed.clear();
+        for (AbstractPlayer player : players) {
+            Robot robot = player.getRobot();
+            DrawnRobot last = drawn.get(robot);
+            if (last == null || !last.shows(robot, spriteOf(robot, won, hidden)))
+                changed.add(robot);
+        }
+        if (changed.isEmpty())
+            return 0;
+
+        int touched = 0;
+        cleared.clear();
+        for (Robot robot : changed) {
+            DrawnRobot last = drawn.get(robot);
+            if (last != null) {
+                layer.setCell(last.x, last.y, null);
+                cleared.add(Location.of(last.x, last.y));
+                touched++;
+            }
+        }
+        // Robots standing on a cleared cell are drawn again, even if they have not changed
+        for (AbstractPlayer player : players) {
+            Robot robot = player.getRobot();
+            if (changed.contains(robot) || cleared.contains(robot.getLocation())) {
+                Sprite sprite = spriteOf(robot, won, hidden);
+                Location location = robot.getLocation();
+                layer.setCell(location.getX(), location.getY(), sprite == Sprite.HIDDEN ? null : cells.get(sprite));
+                drawn.computeIfAbsent(robot, r -> new DrawnRobot()).set(location, sprite);
+                touched++;
+            }
+        }
+        return touched;
+    }
+
+    private static Sprite spriteOf(Robot robot, boolean won, Predicate<Robot> hidden) {
+        if (hidden.test(robot))
+            return Sprite.HIDDEN;
+        if (won)
+            return Sprite.WON;
+        if (robot.getIsDestroyed())
+            return Sprite.DIED;
+        switch (robot.getDirection()) {
+            case DOWN:
+                return Sprite.DOWN;
+            case RIGHT:
+                return Sprite.RIGHT;
+            case LEFT:
+                return Sprite.LEFT;
+            default:
+                return Sprite.UP;
+        }
+    }
+
+    /**
+     * Where a robot was last drawn, and with which sprite.
+     */
+    private static class DrawnRobot {
+        private int x;
+        private int y;
+        private Sprite sprite;
+
+        void set(Location location, Sprite sprite) {
+            this.x = location.getX();
+            this.y = location.getY();
+            this.sprite = sprite;
+        }
+
+        boolean shows(Robot robot, Sprite sprite) {
+            Location location = robot.getLocation();
+            return x == location.getX() && y == location.getY() && this.sprite == sprite;
+        }
+    }
+}
@@ -1,27 +1,44 @@
 package inf112.skeleton.app.cards;
 
 import java.io.Serializable;
-import java.util.Random;
 
 /**
- * Represents a single card in the game.
+ * Represents a single card in the game. Cards never change, and the cards of the program card
+ * deck are shared by every deck, hand and register through the card catalog.
  */
 public class Card implements ICard, Comparable<Card>, Serializable {
-    public CardValue cardValue;
+    // Id of cards that are not part of the card catalog
+    public static final int NO_ID = -1;
+    // The card put in every register of a powered down robot
+    public static final Card POWER_DOWN = new Card(CardValue.PD, 0);
+
+    public final CardValue cardValue;
     private final int priorityValue;
-    Random random = new Random();
+    private final int id;
 
+    /**
+     * Creates a card outside the catalog, without a priority.
+     * @param cardValue the value of the card
+     */
     public Card(CardValue cardValue) {
-        this.cardValue = cardValue;
-        if (cardValue == CardValue.PD)
-            priorityValue = 0;
-        else
-            priorityValue = random.nextInt(255);
+        this(cardValue, 0);
     }
 
     public Card(CardValue cardValue, int priorityValue) {
+        this(cardValue, priorityValue, NO_ID);
+    }
+
+    public Card(CardValue cardValue, int priorityValue, int id) {
         this.cardValue = cardValue;
         this.priorityValue = priorityValue;
+        this.id = id;
+    }
+
+    /**
+     * @return the id of the card in the card catalog, which is the same in every copy of the game
+     */
+    public int getId() {
+        return id;
     }
 
     @Override
@@ -37,4 +54,13 @@ public class Card implements ICard, Comparable<Card>, Serializable {
     public int getPriorityValue() {
         return priorityValue;
     }
+
+    /**
+     * A card of the catalog that is read back from a stream is replaced by the shared card.
+     */
+    private Object readResolve() {
+        if (id == NO_ID || id >= CardCatalog.OFFICIAL.size())
+            return this;
+        return CardCatalog.OFFICIAL.get(id);
+    }
 }
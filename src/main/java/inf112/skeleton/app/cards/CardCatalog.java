@@ -0,0 +1,124 @@
+package inf112.skeleton.app.cards;
+
+import java.io.Serializable;
+
+/**
+ * Every program card of the game, by id. The value and priority of each card is kept in a
+ * table that never changes, so decks can hold card ids instead of cards, and every deck, hand
+ * and register shares the same Card for the same id.
+ * <p>
+ * The priorities are those of the official deck: every card has its own priority, cards that
+ * move the robot further go first, and U-turns go last.
+ */
+public final class CardCatalog implements Serializable {
+    // The cards of each value, with their number, the priority of the first card and the step between priorities
+    private static final CardValue[] RUN_VALUES = {
+            CardValue.UT, CardValue.RL, CardValue.RR, CardValue.B1, CardValue.F1, CardValue.F2, CardValue.F3
+    };
+    private static final int[][] RUNS = {
+            {6, 10, 10}, {18, 70, 20}, {18, 80, 20}, {6, 430, 10}, {18, 490, 10}, {12, 670, 10}, {6, 790, 10}
+    };
+
+    /**
+     * The 84 cards of the official program card deck.
+     */
+    public static final CardCatalog OFFICIAL = new CardCatalog();
+
+    private final CardValue[] values;
+    private final int[] priorities;
+    private final Card[] cards;
+
+    private CardCatalog() {
+        int size = 0;
+        for (int[] run : RUNS)
+            size += run[0];
+        values = new CardValue[size];
+        priorities = new int[size];
+        cards = new Card[size];
+        int id = 0;
+        for (int r = 0; r < RUNS.length; r++) {
+            for (int i = 0; i < RUNS[r][0]; i++) {
+                values[id] = RUN_VALUES[r];
+                priorities[id] = RUNS[r][1] + i * RUNS[r][2];
+                cards[id] = new Card(values[id], priorities[id], id);
+                id++;
+            }
+        }
+    }
+
+    /**
+     * @return the number of cards in the catalog. The ids go from 0 to size - 1
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * @param id the id of a card
+     * @return the card with the id
+     * @throws IllegalArgumentException if no card in the catalog has the id
+     */
+    public Card get(int id) {
+        checkId(id);
+        return cards[id];
+    }
+
+    public CardValue getCardValue(int id) {
+        checkId(id);
+        return values[id];
+    }
+
+    public int getPriorityValue(int id) {
+        checkId(id);
+        return priorities[id];
+    }
+
+    /**
+     * @param cardValue a card value
+     * @return the number of cards in the catalog with the value
+     */
+    public int countWithValue(CardValue cardValue) {
+        int count = 0;
+        for (CardValue value : values) {
+            if (value == cardValue)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param cardValue a card value
+     * @param n which of the cards with the value, counting from 0
+     * @return the nth card with the value, or null if the catalog has fewer than n + 1 cards with the value
+     */
+    public Card getNthWithValue(CardValue cardValue, int n) {
+        if (n < 0)
+            return null;
+        for (int id = 0; id < cards.length; id++) {
+            if (values[id] == cardValue && n-- == 0)
+                return cards[id];
+        }
+        return null;
+    }
+
+    /**
+     * @param card a card
+     * @return true if the card is one of the cards of this catalog
+     */
+    public boolean contains(Card card) {
+        int id = card.getId();
+        return id >= 0 && id < cards.length && cards[id] == card;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= cards.length)
+            throw new IllegalArgumentException("No card with id " + id);
+    }
+
+    /**
+     * There is only the official catalog, so a catalog read back from a stream is replaced by it.
+     */
+    private Object readResolve() {
+        return OFFICIAL;
+    }
+}
@@ -5,12 +5,13 @@ import inf112.skeleton.app.player.AbstractPlayer;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 
 /**
  * This class represents a list of cards, a card deck.
  */
 public class CardDeck implements ICardDeck, Serializable {
-    private final ArrayList<Card> cards;
+    protected final ArrayList<Card> cards;
 
     public CardDeck() {
         this.cards = new ArrayList<>();
@@ -21,10 +22,28 @@ public class CardDeck implements ICardDeck, Serializable {
         Collections.shuffle(cards);
     }
 
+    @Override
+    public void shuffle(Random random) {
+        Collections.shuffle(cards, random);
+    }
+
+    /**
+     * Adds the cards of the card catalog with the given value. Power down cards are all the
+     * same card, so any number of them can be added.
+     * @throws IllegalArgumentException if more cards are wanted than the catalog has with the value
+     */
     @Override
     public void populate(CardValue cardValue, int numberOfCards) {
+        if (cardValue == CardValue.PD) {
+            for (int i = 0; i < numberOfCards; i++)
+                cards.add(Card.POWER_DOWN);
+            return;
+        }
+        int count = CardCatalog.OFFICIAL.countWithValue(cardValue);
+        if (numberOfCards > count)
+            throw new IllegalArgumentException("The catalog has only " + count + " cards of " + cardValue);
         for (int i = 0; i < numberOfCards; i++)
-            cards.add(new Card(cardValue));
+            cards.add(CardCatalog.OFFICIAL.getNthWithValue(cardValue, i));
     }
 
     @Override
@@ -104,6 +123,5 @@ public class CardDeck implements ICardDeck, Serializable {
         if (cards.size() > 0) {
             cards.subList(0, cards.size()).clear();
         }
-        System.out.println(this.getSize());
     }
 }
@@ -2,12 +2,20 @@ package inf112.skeleton.app.cards;
 
 import inf112.skeleton.app.player.AbstractPlayer;
 
+import java.util.Random;
+
 public interface ICardDeck {
     /**
      * Shuffle the deck in random order.
      */
     void shuffle();
 
+    /**
+     * Shuffle the deck with the given random number generator, so the order can be repeated.
+     * @param random The random number generator
+     */
+    void shuffle(Random random);
+
     /**
      * Create a number of new cards, with a given value, and add them to the deck.
      * @param cardValue The card's value
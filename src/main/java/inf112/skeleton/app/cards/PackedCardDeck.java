@@ -0,0 +1,276 @@
+package inf112.skeleton.app.cards;
+
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A card deck holding the ids of cards from a catalog in a circular buffer, so cards are
+ * taken from and put back on either end of the deck without moving the other cards.
+ * The deck only holds cards of its catalog; adding any other card is an error, except that
+ * power down cards in a deck added with {@link #addToDeck(ICardDeck)} are left out.
+ */
+public class PackedCardDeck implements ICardDeck, Serializable {
+    private static final int INITIAL_CAPACITY = 128;
+
+    protected final CardCatalog catalog;
+    // The ids of the cards, from the top of the deck at head. The length is a power of two
+    private int[] ids;
+    private int head;
+    private int size;
+
+    public PackedCardDeck(CardCatalog catalog) {
+        this.catalog = catalog;
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < catalog.size())
+            capacity *= 2;
+        ids = new int[capacity];
+    }
+
+    public CardCatalog getCatalog() {
+        return catalog;
+    }
+
+    private int slot(int index) {
+        return (head + index) & (ids.length - 1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is outside a deck of " + size + " cards");
+    }
+
+    private void ensureCapacity() {
+        if (size < ids.length)
+            return;
+        int[] larger = new int[ids.length * 2];
+        for (int i = 0; i < size; i++)
+            larger[i] = ids[slot(i)];
+        ids = larger;
+        head = 0;
+    }
+
+    /**
+     * @param index the nth card in the deck
+     * @return the id of the card
+     */
+    public int getCardId(int index) {
+        checkIndex(index);
+        return ids[slot(index)];
+    }
+
+    /**
+     * Adds a card to the bottom of the deck.
+     * @param id the id of the card
+     */
+    public void addIdToBottom(int id) {
+        catalog.get(id);
+        ensureCapacity();
+        ids[slot(size)] = id;
+        size++;
+    }
+
+    /**
+     * Adds a card to the top of the deck.
+     * @param id the id of the card
+     */
+    public void addIdToTop(int id) {
+        catalog.get(id);
+        ensureCapacity();
+        head = (head - 1) & (ids.length - 1);
+        ids[head] = id;
+        size++;
+    }
+
+    /**
+     * Takes the card on the top of the deck.
+     * @return the id of the card
+     */
+    public int takeIdFromTop() {
+        if (size == 0)
+            throw new IllegalStateException("The deck is empty");
+        int id = ids[head];
+        head = (head + 1) & (ids.length - 1);
+        size--;
+        return id;
+    }
+
+    /**
+     * Takes the card on the bottom of the deck.
+     * @return the id of the card
+     */
+    public int takeIdFromBottom() {
+        if (size == 0)
+            throw new IllegalStateException("The deck is empty");
+        size--;
+        return ids[slot(size)];
+    }
+
+    @Override
+    public void shuffle() {
+        shuffle(new Random());
+    }
+
+    /**
+     * Shuffles the deck the same way Collections.shuffle shuffles a list, so a seed gives the
+     * same order as it did when the deck was a list of cards.
+     */
+    @Override
+    public void shuffle(Random random) {
+        for (int i = size; i > 1; i--) {
+            int a = slot(i - 1), b = slot(random.nextInt(i));
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+
+    /**
+     * Puts the cards in id order.
+     */
+    public void sortById() {
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++)
+            sorted[i] = ids[slot(i)];
+        Arrays.sort(sorted);
+        System.arraycopy(sorted, 0, ids, 0, size);
+        head = 0;
+    }
+
+    /**
+     * Adds the cards of the catalog with the given value. Power down cards are never put in
+     * the deck, so populating with them adds nothing.
+     * @throws IllegalArgumentException if more cards are wanted than the catalog has with the value
+     */
+    @Override
+    public void populate(CardValue cardValue, int numberOfCards) {
+        if (cardValue == CardValue.PD)
+            return;
+        int count = catalog.countWithValue(cardValue);
+        if (numberOfCards > count)
+            throw new IllegalArgumentException("The catalog has only " + count + " cards of " + cardValue);
+        for (int i = 0; i < numberOfCards; i++)
+            addIdToBottom(catalog.getNthWithValue(cardValue, i).getId());
+    }
+
+    private void checkInCatalog(Card card) {
+        if (!catalog.contains(card))
+            throw new IllegalArgumentException("The card " + card.cardValue + " with priority " + card.getPriorityValue() + " is not in the catalog of this deck");
+    }
+
+    /**
+     * @throws IllegalArgumentException if the card is not in the catalog
+     */
+    @Override
+    public void addToDeck(Card card) {
+        checkInCatalog(card);
+        addIdToBottom(card.getId());
+    }
+
+    /**
+     * Adds the cards of another deck to the bottom of this deck, leaving out power down cards.
+     * @param cardDeck the other deck, which is not changed
+     * @throws IllegalArgumentException if any other card is not in the catalog
+     */
+    public void addToDeck(ICardDeck cardDeck) {
+        for (int i = 0; i < cardDeck.getSize(); i++) {
+            Card card = cardDeck.getCard(i);
+            if (card.cardValue != CardValue.PD)
+                checkInCatalog(card);
+        }
+        for (int i = 0; i < cardDeck.getSize(); i++) {
+            Card card = cardDeck.getCard(i);
+            if (card.cardValue != CardValue.PD)
+                addIdToBottom(card.getId());
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the card is not in the catalog
+     */
+    @Override
+    public void addToTopOfDeck(Card card) {
+        checkInCatalog(card);
+        addIdToTop(card.getId());
+    }
+
+    @Override
+    public void dealCard(AbstractPlayer player) {
+        player.addToHand(catalog.get(takeIdFromTop()));
+    }
+
+    @Override
+    public void dealCard(AbstractPlayer player, int numberOfCards) {
+        for (int i = 0; i < numberOfCards; i++)
+            dealCard(player);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public CardValue getCardValueAt(int index) {
+        return catalog.getCardValue(getCardId(index));
+    }
+
+    @Override
+    public Card getCard(int index) {
+        return catalog.get(getCardId(index));
+    }
+
+    @Override
+    public void printDeck() {
+        for (int i = 0; i < size; i++) {
+            System.out.println((i + 1) + ": " + CardValue.extendedCardValue(getCard(i)) + ", priorityvalue: " + catalog.getPriorityValue(getCardId(i)));
+        }
+    }
+
+    @Override
+    public boolean contains(Card card) {
+        return catalog.contains(card) && indexOf(card.getId()) >= 0;
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[slot(i)] == id)
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public void remove(Card card) {
+        if (!catalog.contains(card))
+            return;
+        int index = indexOf(card.getId());
+        if (index >= 0)
+            remove(index);
+    }
+
+    /**
+     * Removes the card at an index, moving the cards on the shorter side of it.
+     */
+    @Override
+    public void remove(int i) {
+        checkIndex(i);
+        if (i < size / 2) {
+            for (int j = i; j > 0; j--)
+                ids[slot(j)] = ids[slot(j - 1)];
+            head = (head + 1) & (ids.length - 1);
+        } else {
+            for (int j = i; j < size - 1; j++)
+                ids[slot(j)] = ids[slot(j + 1)];
+        }
+        size--;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
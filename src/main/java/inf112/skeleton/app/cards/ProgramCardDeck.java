@@ -1,17 +1,44 @@
 package inf112.skeleton.app.cards;
 
-public class ProgramCardDeck extends CardDeck {
+import inf112.skeleton.app.game.GameRandom;
 
-    public ProgramCardDeck() {
-        super();
-        populate(CardValue.F1, 18);
-        populate(CardValue.F2, 12);
-        populate(CardValue.F3, 6);
-        populate(CardValue.B1, 6);
-        populate(CardValue.RR, 18);
-        populate(CardValue.RL, 18);
-        populate(CardValue.UT, 6);
-        shuffle();
+/**
+ * The deck of program cards. Every deck holds the cards of the official card catalog, and the
+ * random numbers of the game decide their order, so two decks created with the same seed deal
+ * the same cards.
+ */
+public class ProgramCardDeck extends PackedCardDeck {
+
+    public ProgramCardDeck(long seed) {
+        this(new GameRandom(seed));
+    }
+
+    /**
+     * @param random the random numbers of the game, which the cards are shuffled with
+     */
+    public ProgramCardDeck(GameRandom random) {
+        super(CardCatalog.OFFICIAL);
+        for (int id = 0; id < catalog.size(); id++)
+            addIdToBottom(id);
+        shuffle(random);
     }
-}
 
+    /**
+     * @param id the id of a card
+     * @return the card with the id
+     * @throws IllegalArgumentException if no card in the deck has the id
+     */
+    public Card getCardById(int id) {
+        return catalog.get(id);
+    }
+
+    /**
+     * Puts the cards in id order and shuffles them with the seed. Copies of the deck holding
+     * the same cards end up in the same order, no matter what order they were in.
+     * @param seed the seed
+     */
+    public void shuffle(long seed) {
+        sortById();
+        shuffle(new GameRandom(seed));
+    }
+}
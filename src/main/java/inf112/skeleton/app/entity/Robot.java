@@ -4,7 +4,7 @@ import inf112.skeleton.app.cards.Card;
 import inf112.skeleton.app.cards.CardDeck;
 import inf112.skeleton.app.Direction;
 import inf112.skeleton.app.Location;
-import inf112.skeleton.app.Board;
+import inf112.skeleton.app.game.GameLog;
 import inf112.skeleton.app.player.AbstractPlayer;
 
 import java.io.Serializable;
@@ -23,6 +23,10 @@ public class Robot extends Entity implements Serializable {
     private AbstractPlayer owner;
     private ArchiveMarker archiveMarker;
     private ArrayList<Entity> entities;
+    // The size of the board the robot stands on, set when the robot is placed on a board.
+    // A robot that is not on a board has no edges to stop at
+    private int boardWidth = Integer.MAX_VALUE;
+    private int boardHeight = Integer.MAX_VALUE;
 
     public Robot(Location location, int playerId, AbstractPlayer owner) {
         super(location);
@@ -32,6 +36,16 @@ public class Robot extends Entity implements Serializable {
         direction = Direction.UP;
     }
 
+    /**
+     * Sets the size of the board the robot moves on, so it stops at the edges of that board.
+     * @param width width of the board in tiles
+     * @param height height of the board in tiles
+     */
+    public void setBoardSize(int width, int height) {
+        this.boardWidth = width;
+        this.boardHeight = height;
+    }
+
     /**
      * Respawns the robot.
      * @param location The location to respawn on
@@ -42,6 +56,22 @@ public class Robot extends Entity implements Serializable {
         dealDamageToken(2);
     }
 
+    /**
+     * Sets the whole state of the robot, as it is in another copy of the game.
+     * @param location the location
+     * @param direction the direction
+     * @param damageTokens the damage tokens
+     * @param lifeTokens the life tokens
+     * @param destroyed true if the robot is destroyed
+     */
+    public void restore(Location location, Direction direction, int damageTokens, int lifeTokens, boolean destroyed) {
+        setLocation(location);
+        this.direction = direction;
+        this.damageTokens = damageTokens;
+        this.lifeTokens = lifeTokens;
+        this.isDestroyed = destroyed;
+    }
+
     /**
      * Returns the player who is connected to the robot.
      * @return player
@@ -77,7 +107,7 @@ public class Robot extends Entity implements Serializable {
      */
     public void dealDamageToken(int tokens) {
         damageTokens += tokens;
-        System.out.println(this + " now has " + damageTokens + " damage tokens");
+        GameLog.println(this + " now has " + damageTokens + " damage tokens");
     }
 
     /**
@@ -88,14 +118,13 @@ public class Robot extends Entity implements Serializable {
         damageTokens = 0;
         isDestroyed = true;
 
-        System.out.println(this + " lost a life token. It now has " + lifeTokens + " life tokens and 0 damage tokens");
+        GameLog.println(this + " lost a life token. It now has " + lifeTokens + " life tokens and 0 damage tokens");
     }
 
     /**
      * Executes the next associated move in the register depending on the card.
      */
     public void executeNext() {
-        System.out.println("Moved once.");
         move(register.getCard(0));
         register.remove(0);
     }
@@ -127,13 +156,13 @@ public class Robot extends Entity implements Serializable {
                 moveBackward(1);
                 break;
             case RR:
-                rotateRight(1);
+                turn(1);
                 break;
             case RL:
-                rotateLeft(1);
+                turn(-1);
                 break;
             case UT:
-                rotateRight(2);
+                turn(2);
                 break;
             case PD:
                 break;
@@ -143,67 +172,43 @@ public class Robot extends Entity implements Serializable {
     }
 
     /**
-     * Moves the robot forward steps times. Uses the direction of the robot to know which way is forward
+     * Moves the robot forward steps times. Uses the direction of the robot to know which way is forward.
+     * The robot stops at the edge of the board.
      * @param steps The number of steps
      */
     public void moveForward(int steps) {
-        for (int i = 0; i < steps; i++) {
-            int x = this.getLocation().getX();
-            int y = this.getLocation().getY();
-
-            switch (direction) {
-                case UP:
-                    if (!(y == Board.MAP_SIZE_Y - 1)) {
-                        this.setLocation(new Location(x, y + 1));
-                    }
-                    break;
-                case DOWN:
-                    if (!(y == 0)) {
-                        this.setLocation(new Location(x, y - 1));
-                    }
-                    break;
-                case LEFT:
-                    if (!(x == 0)) {
-                        this.setLocation(new Location(x - 1, y));
-                    }
-                    break;
-                case RIGHT:
-                    if (!(x == Board.MAP_SIZE_X - 1)) {
-                        this.setLocation(new Location(x + 1, y));
-                    }
-                    break;
-            }
-        }
-
+        step(direction, steps);
     }
 
     /**
-     * Moves the robot backward steps times. Uses the direction of the robot to know which way is forward
+     * Moves the robot backward steps times. Uses the direction of the robot to know which way is forward.
+     * The robot stops at the edge of the board.
      * @param steps The number of steps
      */
     public void moveBackward(int steps) {
-        for (int i = 0; i < steps; i++) {
-            int x = this.getLocation().getX();
-            int y = this.getLocation().getY();
-            switch (direction) {
-                case UP:
-                    if (!(y == 0)) {
-                        this.setLocation(new Location(x, y - 1)); }
-                    break;
-                case DOWN:
-                    if (!(y == Board.MAP_SIZE_Y-1)) {
-                        this.setLocation(new Location(x, y + 1)); }
-                    break;
-                case LEFT:
-                    if (!(x == Board.MAP_SIZE_X-1)) {
-                        this.setLocation(new Location(x + 1, y)); }
-                    break;
-                case RIGHT:
-                    if (!(x == 0)) {
-                        this.setLocation(new Location(x - 1, y)); }
-                    break;
-            }
-        }
+        step(direction.opposite(), steps);
+    }
+
+    /**
+     * Moves the robot in a straight line. Since the robot stops at the edge of the board,
+     * the end position is the start position plus the whole move, clamped to the board.
+     * @param heading which way to move
+     * @param steps The number of steps
+     */
+    private void step(Direction heading, int steps) {
+        int x = this.getLocation().getX() + heading.getDx() * steps;
+        int y = this.getLocation().getY() + heading.getDy() * steps;
+        x = Math.max(0, Math.min(boardWidth - 1, x));
+        y = Math.max(0, Math.min(boardHeight - 1, y));
+        this.setLocation(Location.of(x, y));
+    }
+
+    /**
+     * Turns the robot a number of quarter turns. Positive numbers turn right, negative numbers turn left.
+     * @param quarterTurns number of quarter turns
+     */
+    public void turn(int quarterTurns) {
+        setDirection(direction.rotate(quarterTurns));
     }
 
     /**
@@ -211,9 +216,7 @@ public class Robot extends Entity implements Serializable {
      * @param steps how much to rotate
      */
     public void rotateLeft(int steps) {
-        for (int i = 1; i <= steps; i++) {
-            setDirection(Direction.rotateLeft(this.direction));
-        }
+        turn(-steps);
     }
 
     /**
@@ -221,9 +224,7 @@ public class Robot extends Entity implements Serializable {
      * @param steps how much to rotate
      */
     public void rotateRight(int steps) {
-        for (int i = 1; i <= steps; i++) {
-            setDirection(Direction.rotateRight(this.direction));
-        }
+        turn(steps);
     }
 
     /**
@@ -0,0 +1,162 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.entity.Flag;
+
+import java.util.Arrays;
+
+/**
+ * A bitboard of the cells on the board. Holes, flags and robots each have one bit per cell,
+ * packed into longs, so checking a cell is a single array read and needs no allocation.
+ * The number of longs follows the size of the board, so larger boards are supported.
+ * <p>
+ * Holes and flags are added once when the map is loaded. Robots are added when the game
+ * starts and moved by the rules engine as they move on the board.
+ */
+public class BoardIndex {
+    private final int width;
+    private final int height;
+
+    private final long[] holes;
+    private final long[] flags;
+    private final long[] robots;
+
+    // The flag standing on each cell, looked up when the flag bit is set
+    private final Flag[] flagAt;
+    // Robots may share a cell, so the robot bit is only cleared when the last one leaves
+    private final byte[] robotCount;
+
+    public BoardIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int cells = width * height;
+        int words = (cells + 63) >>> 6;
+        holes = new long[words];
+        flags = new long[words];
+        robots = new long[words];
+        flagAt = new Flag[cells];
+        robotCount = new byte[cells];
+    }
+
+    private static boolean get(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    private static void clear(long[] bits, int cell) {
+        bits[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private int cell(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the position is on the board
+     */
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public void addHole(Location location) {
+        set(holes, cell(location.getX(), location.getY()));
+    }
+
+    public void addFlag(Flag flag) {
+        int cell = cell(flag.getLocation().getX(), flag.getLocation().getY());
+        set(flags, cell);
+        flagAt[cell] = flag;
+    }
+
+    /**
+     * Removes every flag from the index.
+     */
+    public void clearFlags() {
+        Arrays.fill(flags, 0);
+        Arrays.fill(flagAt, null);
+    }
+
+    public boolean isHole(int x, int y) {
+        return inBounds(x, y) && get(holes, cell(x, y));
+    }
+
+    public boolean isFlag(int x, int y) {
+        return inBounds(x, y) && get(flags, cell(x, y));
+    }
+
+    /**
+     * @return the flag at the position, or null if there is none
+     */
+    public Flag flagAt(int x, int y) {
+        if (!isFlag(x, y))
+            return null;
+        return flagAt[cell(x, y)];
+    }
+
+    public boolean hasRobot(int x, int y) {
+        return inBounds(x, y) && get(robots, cell(x, y));
+    }
+
+    /**
+     * A robot can spawn on a cell on the board that has no hole and no robot.
+     */
+    public boolean isValidSpawn(int x, int y) {
+        if (!inBounds(x, y))
+            return false;
+        int cell = cell(x, y);
+        return ((holes[cell >>> 6] | robots[cell >>> 6]) & (1L << cell)) == 0;
+    }
+
+    public void addRobot(Location location) {
+        int x = location.getX();
+        int y = location.getY();
+        if (!inBounds(x, y))
+            return;
+        int cell = cell(x, y);
+        robotCount[cell]++;
+        set(robots, cell);
+    }
+
+    public void removeRobot(Location location) {
+        int x = location.getX();
+        int y = location.getY();
+        if (!inBounds(x, y))
+            return;
+        int cell = cell(x, y);
+        if (robotCount[cell] > 0 && --robotCount[cell] == 0)
+            clear(robots, cell);
+    }
+
+    /**
+     * Moves a robot from one cell to another.
+     * @param from where the robot was
+     * @param to where the robot is now
+     */
+    public void moveRobot(Location from, Location to) {
+        if (from.getX() == to.getX() && from.getY() == to.getY())
+            return;
+        removeRobot(from);
+        addRobot(to);
+    }
+
+    /**
+     * Removes every robot from the index.
+     */
+    public void clearRobots() {
+        Arrays.fill(robots, 0);
+        Arrays.fill(robotCount, (byte) 0);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,185 @@
+package inf112.skeleton.app.game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The compiled map format. A compiled map holds the layers of a TMX map together with its
+ * flags, holes and start positions, so it is loaded without parsing any XML. The TMX file
+ * stays the source of the map, and the compiled map remembers the checksum of the TMX file
+ * it was made from, so the map compiler and the tests can tell when it is out of date.
+ * Loading a compiled map does not read the TMX file.
+ * <p>
+ * Layout, big-endian:
+ * [magic int][version byte][TMX checksum int][width short][height short]
+ * [layer count byte] and for every layer [name length short][name UTF-8][tile id shorts]
+ * [flag count byte] and for every flag, in order [x short][y short][number short]
+ * [hole count int] and for every hole [x short][y short]
+ * [start count byte] and for every start position, in order [x short][y short]
+ */
+public class CompiledMap {
+    public static final String EXTENSION = ".rrmap";
+    private static final int MAGIC = 0x52524d50; // "RRMP"
+    private static final byte VERSION = 1;
+    // The largest count that fits in the count bytes of the layout
+    private static final int MAX_BYTE_COUNT = 255;
+
+    /**
+     * @param tmxName name of a TMX file, ie. "gameboard1.tmx"
+     * @return name of the compiled map, ie. "gameboard1.rrmap"
+     */
+    public static String compiledName(String tmxName) {
+        int dot = tmxName.lastIndexOf('.');
+        return (dot < 0 ? tmxName : tmxName.substring(0, dot)) + EXTENSION;
+    }
+
+    /**
+     * @param tmx the contents of a TMX file
+     * @return the checksum a compiled map keeps of its TMX file
+     */
+    public static int checksum(byte[] tmx) {
+        CRC32 crc = new CRC32();
+        crc.update(tmx);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Compiles a TMX map.
+     * @param tmx the contents of the TMX file
+     * @return the compiled map
+     * @throws IOException if the TMX file is invalid, or the map is too large for the format
+     */
+    public static byte[] compile(byte[] tmx) throws IOException {
+        MapData map = MapData.parse(new ByteArrayInputStream(tmx));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(map, checksum(tmx), new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a map in the compiled format.
+     * @param map the map
+     * @param tmxChecksum checksum of the TMX file the map was read from
+     * @param out where the map is written
+     * @throws IOException if the map is too large for the format, or writing fails
+     */
+    public static void write(MapData map, int tmxChecksum, DataOutputStream out) throws IOException {
+        if (map.getWidth() > Short.MAX_VALUE || map.getHeight() > Short.MAX_VALUE)
+            throw new IOException("Map is larger than " + Short.MAX_VALUE + " tiles across");
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tmxChecksum);
+        out.writeShort(map.getWidth());
+        out.writeShort(map.getHeight());
+
+        writeByteCount(out, map.getLayerNames().size(), "layers");
+        for (String name : map.getLayerNames()) {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(nameBytes.length);
+            out.write(nameBytes);
+            for (int tileId : map.getLayer(name)) {
+                if (tileId < 0 || tileId > Short.MAX_VALUE)
+                    throw new IOException("Tile id " + tileId + " in layer " + name + " is out of range");
+                out.writeShort(tileId);
+            }
+        }
+
+        int[] flags = map.getFlagCells();
+        writeByteCount(out, flags.length / 3, "flags");
+        for (int value : flags)
+            out.writeShort(value);
+        int[] holes = map.getHoleCells();
+        out.writeInt(holes.length / 2);
+        for (int value : holes)
+            out.writeShort(value);
+        int[] starts = map.getStartCells();
+        writeByteCount(out, starts.length / 2, "start positions");
+        for (int value : starts)
+            out.writeShort(value);
+        out.flush();
+    }
+
+    private static void writeByteCount(DataOutputStream out, int count, String what) throws IOException {
+        if (count > MAX_BYTE_COUNT)
+            throw new IOException("Map has " + count + " " + what + ", at most " + MAX_BYTE_COUNT + " are supported");
+        out.writeByte(count);
+    }
+
+    /**
+     * Memory-maps a compiled map file, so it is read without copying it first.
+     * @param path the compiled map file
+     * @return the contents of the file
+     * @throws IOException if the file can not be mapped
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * @param buffer a compiled map
+     * @return the checksum of the TMX file the map was compiled from
+     * @throws IOException if the buffer is not a compiled map
+     */
+    public static int readChecksum(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 9 || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a compiled map");
+        if (buffer.get(4) != VERSION)
+            throw new IOException("Unsupported compiled map version " + buffer.get(4));
+        return buffer.getInt(5);
+    }
+
+    /**
+     * Reads a compiled map.
+     * @param buffer the compiled map, which is not changed
+     * @return the map data
+     * @throws IOException if the buffer is not a valid compiled map
+     */
+    public static MapData read(ByteBuffer buffer) throws IOException {
+        readChecksum(buffer);
+        ByteBuffer in = buffer.duplicate();
+        in.position(9);
+        try {
+            int width = in.getShort();
+            int height = in.getShort();
+            MapData map = new MapData(width, height);
+
+            int layerCount = in.get() & 0xff;
+            for (int i = 0; i < layerCount; i++) {
+                byte[] name = new byte[in.getShort()];
+                in.get(name);
+                int[] tiles = new int[width * height];
+                for (int j = 0; j < tiles.length; j++)
+                    tiles[j] = in.getShort();
+                map.setLayer(new String(name, StandardCharsets.UTF_8), tiles);
+            }
+
+            int[] flags = readShorts(in, (in.get() & 0xff) * 3);
+            int[] holes = readShorts(in, in.getInt() * 2);
+            int[] starts = readShorts(in, (in.get() & 0xff) * 2);
+            map.setCells(flags, holes, starts);
+            return map;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Compiled map is truncated", e);
+        }
+    }
+
+    private static int[] readShorts(ByteBuffer in, int count) {
+        if (count < 0 || count * 2 > in.remaining())
+            throw new BufferUnderflowException();
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++)
+            values[i] = in.getShort();
+        return values;
+    }
+}
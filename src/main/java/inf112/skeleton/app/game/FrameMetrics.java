@@ -0,0 +1,247 @@
+package inf112.skeleton.app.game;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Measures where the time of a frame goes. Every phase of a frame is timed in nanoseconds, the
+ * time of whole frames is collected in a histogram, and the bytes allocated during a frame are
+ * counted where the JVM supports it. Nothing is allocated while measuring, so the metrics can
+ * be left on while playing.
+ */
+public class FrameMetrics {
+    /**
+     * The parts of a frame that are timed.
+     */
+    public enum Phase {
+        GAME_LOOP, ROBOT_SPRITES, MAP_RENDER, ROBOT_ANIMATIONS, HUD_DRAW, HUD_UPDATE
+    }
+
+    // The histogram has one bucket per millisecond, and the last bucket holds every longer frame
+    public static final int HISTOGRAM_BUCKETS = 100;
+
+    private final long[] phaseStart = new long[Phase.values().length];
+    private final long[] phaseLast = new long[Phase.values().length];
+    private final long[] phaseTotal = new long[Phase.values().length];
+    private final long[] phaseMax = new long[Phase.values().length];
+    private final long[] phaseCount = new long[Phase.values().length];
+
+    private final long[] histogram = new long[HISTOGRAM_BUCKETS];
+    private long frameStart;
+    private long frameLast;
+    private long frameTotal;
+    private long frameMax;
+    private long frames;
+
+    private final com.sun.management.ThreadMXBean allocations;
+    private long allocationStart;
+    private long allocationLast = -1;
+    private long allocationTotal;
+
+    private boolean enabled = true;
+
+    public FrameMetrics() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported())
+            allocations = (com.sun.management.ThreadMXBean) threads;
+        else
+            allocations = null;
+    }
+
+    /**
+     * Turns measuring on or off. When off, the begin and end methods do nothing.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void beginFrame() {
+        if (!enabled)
+            return;
+        frameStart = System.nanoTime();
+        allocationStart = allocatedBytes();
+    }
+
+    public void endFrame() {
+        if (!enabled || frameStart == 0)
+            return;
+        long nanos = System.nanoTime() - frameStart;
+        frameStart = 0;
+        frameLast = nanos;
+        frameTotal += nanos;
+        frameMax = Math.max(frameMax, nanos);
+        frames++;
+        histogram[(int) Math.min(HISTOGRAM_BUCKETS - 1, nanos / 1_000_000)]++;
+
+        if (allocationStart >= 0) {
+            allocationLast = allocatedBytes() - allocationStart;
+            allocationTotal += allocationLast;
+        }
+    }
+
+    public void begin(Phase phase) {
+        if (enabled)
+            phaseStart[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void end(Phase phase) {
+        int i = phase.ordinal();
+        if (!enabled || phaseStart[i] == 0)
+            return;
+        long nanos = System.nanoTime() - phaseStart[i];
+        phaseStart[i] = 0;
+        phaseLast[i] = nanos;
+        phaseTotal[i] += nanos;
+        phaseMax[i] = Math.max(phaseMax[i], nanos);
+        phaseCount[i]++;
+    }
+
+    /**
+     * @return bytes allocated by this thread so far, or -1 if the JVM does not count them
+     */
+    private long allocatedBytes() {
+        return allocations == null ? -1 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getLastFrameNanos() {
+        return frameLast;
+    }
+
+    public long getMaxFrameNanos() {
+        return frameMax;
+    }
+
+    public long getAverageFrameNanos() {
+        return frames == 0 ? 0 : frameTotal / frames;
+    }
+
+    public long getLastNanos(Phase phase) {
+        return phaseLast[phase.ordinal()];
+    }
+
+    public long getMaxNanos(Phase phase) {
+        return phaseMax[phase.ordinal()];
+    }
+
+    public long getAverageNanos(Phase phase) {
+        int i = phase.ordinal();
+        return phaseCount[i] == 0 ? 0 : phaseTotal[i] / phaseCount[i];
+    }
+
+    /**
+     * @return bytes allocated during the last frame, or -1 if the JVM does not count them
+     */
+    public long getLastFrameAllocatedBytes() {
+        return allocationLast;
+    }
+
+    /**
+     * @return bytes allocated during every measured frame, or -1 if the JVM does not count them
+     */
+    public long getTotalAllocatedBytes() {
+        return allocations == null ? -1 : allocationTotal;
+    }
+
+    /**
+     * @param bucket a bucket from 0 to HISTOGRAM_BUCKETS - 1
+     * @return the number of frames that took from bucket to bucket + 1 milliseconds
+     */
+    public long getHistogramCount(int bucket) {
+        return histogram[bucket];
+    }
+
+    /**
+     * Returns the frame time that the given share of frames finished within, read from the histogram.
+     * @param percentile from 0 to 100
+     * @return the frame time in milliseconds, rounded up to a whole bucket
+     */
+    public int getFramePercentileMillis(double percentile) {
+        long wanted = (long) Math.ceil(frames * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= wanted && seen > 0)
+                return bucket + 1;
+        }
+        return 0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < phaseTotal.length; i++) {
+            phaseStart[i] = phaseLast[i] = phaseTotal[i] = phaseMax[i] = phaseCount[i] = 0;
+        }
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++)
+            histogram[i] = 0;
+        frameStart = frameLast = frameTotal = frameMax = frames = 0;
+        allocationLast = -1;
+        allocationTotal = 0;
+    }
+
+    /**
+     * Writes the metrics as CSV, one row for the whole frame and one row per phase, followed by
+     * the histogram. Times are in microseconds.
+     * @param writer where the metrics are written
+     * @throws IOException if writing fails
+     */
+    public void exportCsv(Writer writer) throws IOException {
+        writer.write("name,count,last_us,avg_us,max_us\n");
+        writer.write(row("FRAME", frames, frameLast, getAverageFrameNanos(), frameMax));
+        for (Phase phase : Phase.values())
+            writer.write(row(phase.name(), phaseCount[phase.ordinal()], getLastNanos(phase),
+                    getAverageNanos(phase), getMaxNanos(phase)));
+        writer.write("\nframe_ms,frames\n");
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++)
+            writer.write(bucket + "," + histogram[bucket] + "\n");
+        writer.flush();
+    }
+
+    private static String row(String name, long count, long last, long average, long max) {
+        return name + "," + count + "," + last / 1000 + "," + average / 1000 + "," + max / 1000 + "\n";
+    }
+
+    /**
+     * Writes the metrics as a JSON object. Times are in microseconds.
+     * @param writer where the metrics are written
+     * @throws IOException if writing fails
+     */
+    public void exportJson(Writer writer) throws IOException {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"frames\": ").append(frames).append(",\n");
+        json.append("  \"frame\": ").append(jsonTimes(frameLast, getAverageFrameNanos(), frameMax)).append(",\n");
+        json.append("  \"percentiles_ms\": {\"p50\": ").append(getFramePercentileMillis(50))
+                .append(", \"p95\": ").append(getFramePercentileMillis(95))
+                .append(", \"p99\": ").append(getFramePercentileMillis(99)).append("},\n");
+        json.append("  \"allocated_bytes\": {\"last_frame\": ").append(allocationLast)
+                .append(", \"total\": ").append(getTotalAllocatedBytes()).append("},\n");
+        json.append("  \"phases\": {\n");
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            json.append("    \"").append(phases[i].name()).append("\": ")
+                    .append(jsonTimes(getLastNanos(phases[i]), getAverageNanos(phases[i]), getMaxNanos(phases[i])))
+                    .append(i < phases.length - 1 ? ",\n" : "\n");
+        }
+        json.append("  },\n  \"histogram_ms\": [");
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++)
+            json.append(bucket == 0 ? "" : ", ").append(histogram[bucket]);
+        json.append("]\n}\n");
+        writer.write(json.toString());
+        writer.flush();
+    }
+
+    private static String jsonTimes(long last, long average, long max) {
+        return String.format(Locale.ROOT, "{\"last_us\": %d, \"avg_us\": %d, \"max_us\": %d}",
+                last / 1000, average / 1000, max / 1000);
+    }
+}
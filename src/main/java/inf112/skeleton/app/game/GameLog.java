@@ -0,0 +1,33 @@
+package inf112.skeleton.app.game;
+
+/**
+ * Prints the events of the game, like robots taking damage, to the console. Simulations
+ * turn it off, since printing every event would take up most of their run time. Errors are
+ * not printed here, so they are still shown when the game log is off.
+ */
+public final class GameLog {
+    private static volatile boolean quiet = false;
+
+    private GameLog() {
+    }
+
+    /**
+     * @param quiet true to stop printing game events, false to print them again
+     */
+    public static void setQuiet(boolean quiet) {
+        GameLog.quiet = quiet;
+    }
+
+    public static boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * Prints a game event, unless the game log is off.
+     * @param message the event
+     */
+    public static void println(String message) {
+        if (!quiet)
+            System.out.println(message);
+    }
+}
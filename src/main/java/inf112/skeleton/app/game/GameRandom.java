@@ -0,0 +1,103 @@
+package inf112.skeleton.app.game;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * The random numbers of one game. Every shuffle and deal of the game draws from it, so a game
+ * played again with the same seed plays out the same way. The numbers come from a
+ * SplittableRandom, which is not shared between games, so games simulated in parallel do not
+ * wait on each other. It extends Random so it can be given to anything that shuffles with one.
+ */
+public class GameRandom extends Random {
+    // Spreads the seeds of games played one after another over the whole range of seeds
+    private static final long GAME_SEED_STEP = 0x9E3779B97F4A7C15L;
+    // A different step for splits, so a split does not get the seed of a later game of the series
+    private static final long SPLIT_SEED_STEP = 0xBF58476D1CE4E5B9L;
+
+    private final long seed;
+    private SplittableRandom source;
+    // How many times the numbers have been split
+    private long splits;
+
+    /**
+     * Creates the random numbers of a game with a seed of its own.
+     */
+    public GameRandom() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public GameRandom(long seed) {
+        this(seed, new SplittableRandom(seed));
+    }
+
+    private GameRandom(long seed, SplittableRandom source) {
+        super(0);
+        this.seed = seed;
+        this.source = source;
+    }
+
+    /**
+     * @param seed the seed of a series of games
+     * @param game the number of a game in the series
+     * @return the seed of the game, which is the same every time the series is played
+     */
+    public static long gameSeed(long seed, long game) {
+        return seed + game * GAME_SEED_STEP;
+    }
+
+    /**
+     * @return the seed the numbers started from, which replays the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Creates numbers that do not depend on the numbers drawn from this one, for a part of the
+     * game that runs on its own. The seed of the new numbers is found from this seed and how
+     * many splits came before, so its getSeed replays it too.
+     * @return the new random numbers
+     */
+    public synchronized GameRandom split() {
+        splits++;
+        return new GameRandom(new SplittableRandom(seed + splits * SPLIT_SEED_STEP).nextLong());
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        // Called by the Random constructor, before the source is made
+        if (source != null)
+            source = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (source.nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return source.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return source.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return source.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return source.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return source.nextBoolean();
+    }
+}
@@ -0,0 +1,43 @@
+package inf112.skeleton.app.game;
+
+/**
+ * The outcome of a simulated game.
+ */
+public class GameResult {
+    public static final int NO_WINNER = -1;
+
+    private final int winnerId;
+    private final int rounds;
+    private final int[] flagsCaptured;
+
+    public GameResult(int winnerId, int rounds, int[] flagsCaptured) {
+        this.winnerId = winnerId;
+        this.rounds = rounds;
+        this.flagsCaptured = flagsCaptured;
+    }
+
+    /**
+     * @return the id of the winning player, or NO_WINNER if the game was not finished
+     */
+    public int getWinnerId() {
+        return winnerId;
+    }
+
+    public boolean hasWinner() {
+        return winnerId != NO_WINNER;
+    }
+
+    /**
+     * @return number of rounds played
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @return number of flags each player had visited when the game ended, by seat
+     */
+    public int[] getFlagsCaptured() {
+        return flagsCaptured;
+    }
+}
@@ -0,0 +1,115 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.BotPlayer;
+import inf112.skeleton.app.player.Player;
+
+import java.util.ArrayList;
+
+/**
+ * Plays whole games with the rules engine and no rendering. Every player programs its
+ * register with the first cards of its hand, which is random since the deck is shuffled
+ * before every deal. Bots program their registers by searching their hand instead. A game
+ * played with the same seed plays out the same way.
+ */
+public class GameSimulator {
+    // Games that take longer than this are counted as unfinished
+    public static final int MAX_ROUNDS = 200;
+
+    private final MapData map;
+    private final int numberOfPlayers;
+    // The first seats are taken by bots
+    private final int numberOfBots;
+
+    public GameSimulator(MapData map, int numberOfPlayers) {
+        this(map, numberOfPlayers, 0);
+    }
+
+    public GameSimulator(MapData map, int numberOfPlayers, int numberOfBots) {
+        this.map = map;
+        this.numberOfPlayers = numberOfPlayers;
+        this.numberOfBots = numberOfBots;
+    }
+
+    /**
+     * Plays a game with a seed of its own.
+     * @return the result of the game
+     */
+    public GameResult playGame() {
+        return playGame(new GameRandom().getSeed());
+    }
+
+    /**
+     * Plays a game until a player has visited every flag, or until MAX_ROUNDS rounds
+     * have been played.
+     * @param seed the seed of every shuffle and deal of the game
+     * @return the result of the game
+     */
+    public GameResult playGame(long seed) {
+        ArrayList<AbstractPlayer> players = createPlayers();
+        RulesEngine engine = new RulesEngine(new GameState(players, map, new GameRandom(seed)));
+        AbstractPlayer winner = null;
+
+        while (winner == null && engine.getState().getRound() <= MAX_ROUNDS) {
+            // Bots program their robots when the cards are dealt
+            engine.startNewRound();
+            for (AbstractPlayer player : players) {
+                if (!(player instanceof BotPlayer))
+                    programRegister(player);
+            }
+            winner = playRound(engine);
+            engine.setAllPlayersNotReady();
+            engine.cleanup();
+        }
+
+        int[] flagsCaptured = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            flagsCaptured[i] = players.get(i).getVisitedFlags().size();
+        }
+        int winnerId = winner == null ? GameResult.NO_WINNER : winner.getPlayerId();
+        return new GameResult(winnerId, engine.getState().getRound() - 1, flagsCaptured);
+    }
+
+    /**
+     * Executes registers until they are empty or a player has won.
+     * @return the winner, or null if nobody won this round
+     */
+    private AbstractPlayer playRound(RulesEngine engine) {
+        while (!engine.registersAreEmpty()) {
+            if (engine.getState().getPhaseQueue().isEmpty()) {
+                engine.updatePhaseQueue();
+            }
+            AbstractPlayer player = engine.executePhase();
+            if (engine.checkIfWon()) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    private void programRegister(AbstractPlayer player) {
+        CardDeck register = new CardDeck();
+        for (int i = 0; i < RulesEngine.REGISTER_SIZE; i++) {
+            register.addToDeck(player.getCard(0));
+            player.getHand().remove(0);
+        }
+        player.getRobot().updateRegister(register);
+        player.setReady(true);
+    }
+
+    /**
+     * Places the players on the start positions of the map. Maps without enough start
+     * positions place them on the bottom row, the same way as the main menu does.
+     */
+    private ArrayList<AbstractPlayer> createPlayers() {
+        ArrayList<Location> starts = map.createStartLocations();
+        ArrayList<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 1; i <= numberOfPlayers; i++) {
+            Location start = i <= starts.size() ? starts.get(i - 1) : new Location(2 + 3 * (i - 1), 0);
+            players.add(i <= numberOfBots ? new BotPlayer(start, i) : new Player(start, i));
+        }
+        return players;
+    }
+}
@@ -0,0 +1,192 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.cards.ProgramCardDeck;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Hole;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds everything the rules of a game act on: the players, the entities on the board,
+ * the card deck and the phase queue. Contains no rendering, so a game can be simulated
+ * without libGDX.
+ */
+public class GameState {
+    private final int width;
+    private final int height;
+
+    // the list of players can be used to get the robots
+    private ArrayList<AbstractPlayer> players;
+
+    // List of robots that have been destroyed and are yet to respawn
+    private final ArrayList<Robot> destroyedRobots = new ArrayList<>();
+
+    // Entities
+    private final ArrayList<Flag> flags = new ArrayList<>();
+    private final ArrayList<Hole> holes = new ArrayList<>();
+    // Holes, flags and robots by cell, for lookups without scanning the lists
+    private final BoardIndex boardIndex;
+
+    // The player that is in the front of the phase queue at start of a phase
+    private AbstractPlayer activePlayer;
+    private final PhaseScheduler phaseQueue = new PhaseScheduler();
+
+    private final ProgramCardDeck programCardDeck;
+    // Every shuffle and deal of the game draws from this
+    private final GameRandom random;
+
+    private int round = 1;
+
+    public GameState(ArrayList<AbstractPlayer> players, int width, int height) {
+        this(players, width, height, new GameRandom());
+    }
+
+    private GameState(ArrayList<AbstractPlayer> players, int width, int height, GameRandom random) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.programCardDeck = new ProgramCardDeck(random);
+        boardIndex = new BoardIndex(width, height);
+        setPlayers(players);
+        if (!players.isEmpty())
+            activePlayer = players.get(0);
+    }
+
+    public GameState(ArrayList<AbstractPlayer> players, MapData map) {
+        this(players, map, new GameRandom());
+    }
+
+    /**
+     * Creates a state where the cards are shuffled from a seed, so every copy of an online game
+     * has the same cards.
+     * @param players the players
+     * @param map the map
+     * @param deckSeed the seed of the game
+     */
+    public GameState(ArrayList<AbstractPlayer> players, MapData map, long deckSeed) {
+        this(players, map, new GameRandom(deckSeed));
+    }
+
+    /**
+     * Creates a state where every shuffle and deal draws from the given random numbers, so the
+     * game can be played again from the same seed.
+     * @param players the players
+     * @param map the map
+     * @param random the random numbers of the game
+     */
+    public GameState(ArrayList<AbstractPlayer> players, MapData map, GameRandom random) {
+        this(players, map.getWidth(), map.getHeight(), random);
+        setFlags(map.createFlags());
+        for (Hole hole : map.createHoles())
+            addHole(hole);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public ArrayList<AbstractPlayer> getPlayers() {
+        return players;
+    }
+
+    /**
+     * @param playerId the id of a player
+     * @return the player with the id, or null if there is none
+     */
+    public AbstractPlayer getPlayer(int playerId) {
+        for (AbstractPlayer player : players) {
+            if (player.getPlayerId() == playerId)
+                return player;
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the players in the game, and the robots in the board index with theirs.
+     * @param players the new players
+     */
+    public void setPlayers(ArrayList<AbstractPlayer> players) {
+        this.players = players;
+        boardIndex.clearRobots();
+        for (AbstractPlayer player : players) {
+            player.getRobot().setBoardSize(width, height);
+            boardIndex.addRobot(player.getRobot().getLocation());
+        }
+    }
+
+    public ArrayList<Robot> getDestroyedRobots() {
+        return destroyedRobots;
+    }
+
+    /**
+     * @return the flags on the board. Use setFlags to change them, so the board index is kept up to date.
+     */
+    public List<Flag> getFlags() {
+        return Collections.unmodifiableList(flags);
+    }
+
+    /**
+     * Replaces the flags on the board.
+     * @param newFlags the new flags
+     */
+    public void setFlags(List<Flag> newFlags) {
+        flags.clear();
+        boardIndex.clearFlags();
+        for (Flag flag : newFlags) {
+            flags.add(flag);
+            boardIndex.addFlag(flag);
+        }
+    }
+
+    /**
+     * @return the holes on the board. Use addHole to add more, so the board index is kept up to date.
+     */
+    public List<Hole> getHoles() {
+        return Collections.unmodifiableList(holes);
+    }
+
+    public void addHole(Hole hole) {
+        holes.add(hole);
+        boardIndex.addHole(hole.getLocation());
+    }
+
+    public BoardIndex getBoardIndex() {
+        return boardIndex;
+    }
+
+    public AbstractPlayer getActivePlayer() {
+        return activePlayer;
+    }
+
+    public void setActivePlayer(AbstractPlayer activePlayer) {
+        this.activePlayer = activePlayer;
+    }
+
+    public PhaseScheduler getPhaseQueue() {
+        return phaseQueue;
+    }
+
+    public ProgramCardDeck getProgramCardDeck() {
+        return programCardDeck;
+    }
+
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public void nextRound() {
+        round++;
+    }
+}
@@ -0,0 +1,171 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+/**
+ * An interface for the rules of the game. Every rule acts on a {@link GameState}, and none of
+ * them depend on rendering or input.
+ */
+public interface IRulesEngine {
+
+    /**
+     * @return the state the rules act on
+     */
+    GameState getState();
+
+    /**
+     * Starts a new offline round. Every player puts their hand back in the deck and is dealt
+     * a new hand.
+     */
+    void startNewRound();
+
+    /**
+     * Starts a new lockstep round. Every copy of the game with the same cards deals the same
+     * hands to every player from the round seed.
+     * @param roundSeed the seed shared by every copy of the game
+     */
+    void startNewRound(long roundSeed);
+
+    /**
+     * Shuffles the deck with the random numbers of the game and gives a player some cards to pick from.
+     * @param player the player to deal to
+     */
+    void dealCardsToPlayer(AbstractPlayer player);
+
+    /**
+     * Puts the cards left in a player's hand back on top of the deck.
+     * @param player the player whose hand is returned
+     */
+    void putHandBackToDeck(AbstractPlayer player);
+
+    /**
+     * Sets the player in front of the phase queue as the active player.
+     */
+    void switchActivePlayer();
+
+    /**
+     * Starts the next phase, if all players are ready and the current phase is over. The robots
+     * that are not destroyed are put in the phase queue, in order of priority. The order of every
+     * phase of the round is worked out when the first phase starts.
+     */
+    void updatePhaseQueue();
+
+    /**
+     * Executes the next register card of the player in front of the phase queue.
+     * @return the player whose register was executed
+     */
+    AbstractPlayer executeNextRobotRegister();
+
+    /**
+     * Executes a single phase step: the player in front of the phase queue becomes active,
+     * its next register is executed, and flags and holes are resolved for it.
+     * @return the player whose register was executed
+     */
+    AbstractPlayer executePhase();
+
+    /**
+     * Registers a flag for the active player if it stands on the next flag it needs.
+     */
+    void checkIfActivePlayerOnFlag();
+
+    /**
+     * Checks if the active player can visit a flag.
+     * @param flag flag being checked
+     * @return true if the active player can visit
+     */
+    boolean canVisitFlag(Flag flag);
+
+    /**
+     * Checks if the active player has visited every flag.
+     * @return true if won, false if not.
+     */
+    boolean checkIfWon();
+
+    /**
+     * @return true if the active player's robot stands on a hole
+     */
+    boolean activePlayerOnHole();
+
+    /**
+     * Destroys the active player's robot after it fell down a hole.
+     */
+    void robotHoleEvent();
+
+    /**
+     * Deals damage to a robot, and destroys it if it has taken too much damage.
+     * @param robot the robot
+     * @param amount number of damage tokens
+     */
+    void dealDamage(Robot robot, int amount);
+
+    /**
+     * Respawns every destroyed robot at its archive marker.
+     */
+    void spawnRobots();
+
+    /**
+     * Ends the round for the active player and respawns destroyed robots.
+     */
+    void cleanup();
+
+    /**
+     * @return true if any robot has cards left in its register
+     */
+    boolean readyCheck();
+
+    /**
+     * @return true if every robot has an empty register
+     */
+    boolean registersAreEmpty();
+
+    /**
+     * @return true if every player is ready
+     */
+    boolean allPlayersReady();
+
+    /**
+     * Sets every player as not ready.
+     */
+    void setAllPlayersNotReady();
+
+    /**
+     * @param location location on the board
+     * @return true if there is a hole at the location
+     */
+    boolean holeAtLocation(Location location);
+
+    /**
+     * @param location location on the board
+     * @return true if there is a robot at the location
+     */
+    boolean robotAtLocation(Location location);
+
+    /**
+     * @param location location on the board
+     * @return true if the location is on the board
+     */
+    boolean withinBounds(Location location);
+
+    /**
+     * @param location location on the board
+     * @return true if a robot can respawn at the location
+     */
+    boolean validSpawnLocation(Location location);
+
+    /**
+     * Places a robot at a new location.
+     * @param robot the robot
+     * @param newLocation where to place it
+     */
+    void moveRobot(Robot robot, Location newLocation);
+
+    /**
+     * Tells the engine that a robot has been moved outside of the rules, ie. by keyboard input.
+     * @param from where the robot was before moving
+     * @param robot the robot that moved
+     */
+    void robotMoved(Location from, Robot robot);
+}
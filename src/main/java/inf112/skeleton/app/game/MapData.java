@@ -0,0 +1,365 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Hole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The parts of a TMX map that matter for the rules of the game. The map is read with plain
+ * Java XML parsing, so it can be loaded without libGDX or an OpenGL context. When a map has
+ * been compiled with main.MapCompiler, the compiled map is loaded instead, and no XML is parsed.
+ * A map can not be changed once it is loaded, since the same map is shared by every game on it.
+ */
+public class MapData {
+    public static final String BOARD_LAYER = "board";
+    public static final String HOLE_LAYER = "hole";
+    public static final String FLAG_LAYER = "flag";
+    // Tile id of the first start position; start position n has id START_TILE + n - 1
+    public static final int START_TILE = 121;
+    public static final int MAX_START_POSITIONS = 8;
+
+    // Maps are only loaded once, and then shared by every game on them
+    private static final ConcurrentHashMap<String, MapData> cache = new ConcurrentHashMap<>();
+
+    private final int width;
+    private final int height;
+    // Tile ids of every layer, stored row by row from the bottom row up (like libGDX)
+    private final LinkedHashMap<String, int[]> layers = new LinkedHashMap<>();
+    // Positions of the flags as (x, y, flag number) ordered by flag number, of the holes as
+    // (x, y), and of the start positions as (x, y) ordered by number. Found from the layers
+    // when they are first needed, unless they were read from a compiled map.
+    private int[] flagCells;
+    private int[] holeCells;
+    private int[] startCells;
+
+    MapData(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Loads a map by its file name, ie. "gameboard1.tmx". The map is looked up on the
+     * classpath first and then in the assets folder. If a compiled map made from the same
+     * TMX file is found, it is loaded instead, without reading the TMX file. Whether the
+     * compiled map is up to date is checked by main.MapCompiler and the tests, not here.
+     * Every map is only loaded once.
+     * @param fileName name of the TMX file
+     * @return the map data
+     */
+    public static MapData load(String fileName) {
+        return cache.computeIfAbsent(fileName, MapData::loadUncached);
+    }
+
+    private static MapData loadUncached(String fileName) {
+        MapData map = read(fileName);
+        // Found before the map is shared, so games on other threads never write to it
+        map.getFlagCells();
+        map.getHoleCells();
+        map.getStartCells();
+        return map;
+    }
+
+    private static MapData read(String fileName) {
+        try {
+            String compiledName = CompiledMap.compiledName(fileName);
+            File compiledFile = findFile(compiledName);
+            if (compiledFile != null)
+                return CompiledMap.read(CompiledMap.map(compiledFile.toPath()));
+            byte[] compiled = readAll(compiledName);
+            if (compiled != null)
+                return CompiledMap.read(ByteBuffer.wrap(compiled));
+
+            GameLog.println("No " + compiledName + ", loading the TMX file");
+            byte[] tmx = readAll(fileName);
+            if (tmx == null)
+                throw new FileNotFoundException(fileName);
+            return parse(new ByteArrayInputStream(tmx));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not load map: " + fileName, e);
+        }
+    }
+
+    /**
+     * Reads a file from the classpath or the assets folder.
+     * @param fileName name of the file
+     * @return the contents of the file, or null if there is no such file
+     * @throws IOException if the file can not be read
+     */
+    static byte[] readAll(String fileName) throws IOException {
+        InputStream in = MapData.class.getClassLoader().getResourceAsStream(fileName);
+        if (in == null) {
+            File file = findFile(fileName);
+            if (file == null)
+                return null;
+            in = new FileInputStream(file);
+        }
+        try (InputStream input = in) {
+            return input.readAllBytes();
+        }
+    }
+
+    private static File findFile(String fileName) {
+        File file = new File("assets", fileName);
+        if (!file.exists())
+            file = new File(fileName);
+        return file.exists() ? file : null;
+    }
+
+    /**
+     * Reads a TMX map with CSV encoded layers.
+     * @param in the TMX document
+     * @return the map data
+     * @throws IOException if the document can not be read or parsed
+     */
+    public static MapData parse(InputStream in) throws IOException {
+        Document document;
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Invalid TMX document", e);
+        }
+        Element root = document.getDocumentElement();
+        MapData mapData = new MapData(Integer.parseInt(root.getAttribute("width")),
+                Integer.parseInt(root.getAttribute("height")));
+
+        NodeList layerNodes = root.getElementsByTagName("layer");
+        for (int i = 0; i < layerNodes.getLength(); i++) {
+            Element layer = (Element) layerNodes.item(i);
+            Element data = (Element) layer.getElementsByTagName("data").item(0);
+            if (!"csv".equals(data.getAttribute("encoding")))
+                throw new IOException("Only CSV encoded layers are supported");
+            mapData.setLayer(layer.getAttribute("name"), parseCsv(data.getTextContent(), mapData));
+        }
+        return mapData;
+    }
+
+    private static int[] parseCsv(String csv, MapData mapData) throws IOException {
+        String[] values = csv.trim().split("\\s*,\\s*");
+        if (values.length != mapData.width * mapData.height)
+            throw new IOException("Layer size does not match map size");
+
+        int[] tiles = new int[values.length];
+        for (int row = 0; row < mapData.height; row++) {
+            // TMX rows go from the top down, the board's y axis goes from the bottom up
+            int y = mapData.height - 1 - row;
+            for (int x = 0; x < mapData.width; x++) {
+                tiles[y * mapData.width + x] = Integer.parseInt(values[row * mapData.width + x]);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Sets the tile ids of a layer, while the map is read.
+     * @param name name of the layer
+     * @param tiles tile ids, row by row from the bottom row up
+     */
+    void setLayer(String name, int[] tiles) {
+        layers.put(name, tiles);
+        flagCells = null;
+        holeCells = null;
+        startCells = null;
+    }
+
+    /**
+     * @return the names of the layers, in the order of the map
+     */
+    public Set<String> getLayerNames() {
+        return Collections.unmodifiableSet(layers.keySet());
+    }
+
+    /**
+     * @param name name of the layer
+     * @return a copy of the tile ids of the layer, row by row from the bottom row up
+     */
+    int[] getLayer(String name) {
+        return layers.get(name).clone();
+    }
+
+    /**
+     * Sets the positions of the flags, holes and start positions, as they are read from a
+     * compiled map.
+     */
+    void setCells(int[] flagCells, int[] holeCells, int[] startCells) {
+        this.flagCells = flagCells;
+        this.holeCells = holeCells;
+        this.startCells = startCells;
+    }
+
+    /**
+     * @return the flags as (x, y, flag number), ordered by flag number
+     */
+    int[] getFlagCells() {
+        if (flagCells == null) {
+            ArrayList<int[]> found = new ArrayList<>();
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    int tileId = getTileId(FLAG_LAYER, x, y);
+                    if (tileId != 0)
+                        found.add(new int[]{x, y, flagNumber(tileId)});
+                }
+            }
+            found.sort(Comparator.comparingInt(flag -> flag[2]));
+            int[] cells = new int[found.size() * 3];
+            for (int i = 0; i < found.size(); i++)
+                System.arraycopy(found.get(i), 0, cells, i * 3, 3);
+            flagCells = cells;
+        }
+        return flagCells;
+    }
+
+    /**
+     * @return the holes as (x, y)
+     */
+    int[] getHoleCells() {
+        if (holeCells == null) {
+            int[] cells = new int[width * height * 2];
+            int size = 0;
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    if (getTileId(HOLE_LAYER, x, y) != 0) {
+                        cells[size++] = x;
+                        cells[size++] = y;
+                    }
+                }
+            }
+            holeCells = Arrays.copyOf(cells, size);
+        }
+        return holeCells;
+    }
+
+    /**
+     * @return the start positions as (x, y), ordered by number
+     */
+    int[] getStartCells() {
+        if (startCells == null) {
+            int[] cells = new int[MAX_START_POSITIONS * 2];
+            int count = 0;
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    int number = getTileId(BOARD_LAYER, x, y) - START_TILE;
+                    if (number >= 0 && number < MAX_START_POSITIONS) {
+                        cells[number * 2] = x;
+                        cells[number * 2 + 1] = y;
+                        count = Math.max(count, number + 1);
+                    }
+                }
+            }
+            startCells = Arrays.copyOf(cells, count * 2);
+        }
+        return startCells;
+    }
+
+    /**
+     * @param name name of the layer
+     * @return true if the map has a layer with the given name
+     */
+    public boolean hasLayer(String name) {
+        return layers.containsKey(name);
+    }
+
+    /**
+     * @param layer name of the layer
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return the tile id at the given position, or 0 if there is no tile
+     */
+    public int getTileId(String layer, int x, int y) {
+        int[] tiles = layers.get(layer);
+        if (tiles == null)
+            return 0;
+        return tiles[y * width + x];
+    }
+
+    /**
+     * Creates a hole for every tile in the hole layer.
+     * @return list of holes
+     */
+    public ArrayList<Hole> createHoles() {
+        int[] cells = getHoleCells();
+        ArrayList<Hole> holes = new ArrayList<>(cells.length / 2);
+        for (int i = 0; i < cells.length; i += 2)
+            holes.add(new Hole(new Location(cells[i], cells[i + 1])));
+        return holes;
+    }
+
+    /**
+     * Creates a flag for every tile in the flag layer, in the order they must be visited.
+     * The flag number is found from the id of the flag's sprite in the texture pack.
+     * @return list of flags
+     */
+    public ArrayList<Flag> createFlags() {
+        int[] cells = getFlagCells();
+        ArrayList<Flag> flags = new ArrayList<>(cells.length / 3);
+        for (int i = 0; i < cells.length; i += 3)
+            flags.add(new Flag(cells[i + 2], new Location(cells[i], cells[i + 1])));
+        return flags;
+    }
+
+    /**
+     * Creates the start positions of the map, from the start tiles of the board layer.
+     * @return the start positions, the first player's first
+     */
+    public ArrayList<Location> createStartLocations() {
+        int[] cells = getStartCells();
+        ArrayList<Location> starts = new ArrayList<>(cells.length / 2);
+        for (int i = 0; i < cells.length; i += 2)
+            starts.add(new Location(cells[i], cells[i + 1]));
+        return starts;
+    }
+
+    /**
+     * Translates the tile id of a flag sprite to the number of the flag.
+     * @param tileId id of the tile in the texture pack
+     * @return the flag number
+     */
+    public static int flagNumber(int tileId) {
+        switch (tileId) {
+            case 55:
+                return 1;
+            case 63:
+                return 2;
+            case 71:
+                return 3;
+            case 79:
+                return 4;
+            default:
+                return tileId;
+        }
+    }
+
+    /**
+     * @return width of the map in tiles
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return height of the map in tiles
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,159 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+import java.util.List;
+
+/**
+ * Decides the order the robots execute their registers in. When the registers are locked in,
+ * the order of every phase of the round is worked out at once, by sorting the players on the
+ * priority of their card for that phase with a counting sort. Each phase then walks its part
+ * of the order, highest priority first. Players with the same priority keep their seat order.
+ */
+public class PhaseScheduler {
+    // The order of each phase, and how many players take part in it
+    private AbstractPlayer[][] order = new AbstractPlayer[0][];
+    private int[] orderSize = new int[0];
+    private int phases;
+    private int nextPhase;
+    // Reused between rounds, and only grown when a card has a higher priority than seen before
+    private int[] counts = new int[1];
+
+    // The players of the phase being executed, from position to size
+    private AbstractPlayer[] current = new AbstractPlayer[0];
+    private int position;
+    private int size;
+
+    /**
+     * Works out the order of every phase from the registers the players have now. A player
+     * takes part in a phase if their register has a card for it.
+     * @param players the players, in seat order
+     */
+    public void schedule(List<AbstractPlayer> players) {
+        phases = 0;
+        int maxPriority = 0;
+        for (AbstractPlayer player : players) {
+            CardDeck register = player.getRobot().getRegister();
+            phases = Math.max(phases, register.getSize());
+            for (int i = 0; i < register.getSize(); i++)
+                maxPriority = Math.max(maxPriority, register.getCard(i).getPriorityValue());
+        }
+        if (order.length < phases || (phases > 0 && order[0].length < players.size())) {
+            order = new AbstractPlayer[Math.max(phases, order.length)][Math.max(players.size(), 1)];
+            orderSize = new int[order.length];
+        }
+        if (counts.length < maxPriority + 2)
+            counts = new int[maxPriority + 2];
+
+        for (int phase = 0; phase < phases; phase++)
+            sortPhase(players, phase, maxPriority);
+        nextPhase = 0;
+        clearCurrent();
+    }
+
+    /**
+     * Counting sort of the players with a card for the phase, highest priority first.
+     */
+    private void sortPhase(List<AbstractPlayer> players, int phase, int maxPriority) {
+        int[] counts = this.counts;
+        for (int i = 0; i <= maxPriority + 1; i++)
+            counts[i] = 0;
+        int taking = 0;
+        for (AbstractPlayer player : players) {
+            CardDeck register = player.getRobot().getRegister();
+            if (phase < register.getSize()) {
+                // Counted by distance from the highest priority, so the sort is descending
+                counts[maxPriority - register.getCard(phase).getPriorityValue() + 1]++;
+                taking++;
+            }
+        }
+        for (int i = 1; i <= maxPriority + 1; i++)
+            counts[i] += counts[i - 1];
+        AbstractPlayer[] sorted = order[phase];
+        for (AbstractPlayer player : players) {
+            CardDeck register = player.getRobot().getRegister();
+            if (phase < register.getSize())
+                sorted[counts[maxPriority - register.getCard(phase).getPriorityValue()]++] = player;
+        }
+        orderSize[phase] = taking;
+    }
+
+    /**
+     * @return true if the locked in registers have a phase that has not been started
+     */
+    public boolean hasNextPhase() {
+        return nextPhase < phases;
+    }
+
+    /**
+     * Starts the next phase of the round. Robots that are destroyed when the phase starts,
+     * or whose register has no card left, do not take part in it.
+     */
+    public void startNextPhase() {
+        if (!hasNextPhase())
+            throw new IllegalStateException("Every phase of the round has been started");
+        AbstractPlayer[] sorted = order[nextPhase];
+        int taking = orderSize[nextPhase];
+        nextPhase++;
+        if (current.length < taking)
+            current = new AbstractPlayer[taking];
+        size = 0;
+        for (int i = 0; i < taking; i++) {
+            Robot robot = sorted[i].getRobot();
+            if (!robot.getIsDestroyed() && robot.getRegister().getSize() > 0)
+                current[size++] = sorted[i];
+        }
+        position = 0;
+    }
+
+    /**
+     * @return true if every player of the current phase has executed their register
+     */
+    public boolean isEmpty() {
+        return position == size;
+    }
+
+    /**
+     * @return the number of players left in the current phase
+     */
+    public int size() {
+        return size - position;
+    }
+
+    /**
+     * @return the next player of the current phase, or null if there is none
+     */
+    public AbstractPlayer peek() {
+        return isEmpty() ? null : current[position];
+    }
+
+    /**
+     * Takes the next player of the current phase.
+     * @return the player, or null if there is none
+     */
+    public AbstractPlayer poll() {
+        if (isEmpty())
+            return null;
+        AbstractPlayer player = current[position];
+        current[position++] = null;
+        return player;
+    }
+
+    /**
+     * Forgets the order of the round, so the next registers locked in are scheduled anew.
+     */
+    public void clear() {
+        phases = 0;
+        nextPhase = 0;
+        clearCurrent();
+    }
+
+    private void clearCurrent() {
+        for (int i = position; i < size; i++)
+            current[i] = null;
+        position = 0;
+        size = 0;
+    }
+}
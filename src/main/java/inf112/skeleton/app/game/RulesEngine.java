@@ -0,0 +1,301 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.Direction;
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.cards.ProgramCardDeck;
+import inf112.skeleton.app.entity.ArchiveMarker;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+/**
+ * The rules of RoboRally. Board delegates to this class and only renders the state it owns,
+ * while headless simulations can drive it directly.
+ */
+public class RulesEngine implements IRulesEngine {
+    public static final int HAND_SIZE = 9;
+    public static final int REGISTER_SIZE = 5;
+    public static final int MAX_DAMAGE_TOKENS = 10;
+
+    private final GameState state;
+    private StateListener listener = StateListener.NONE;
+
+    public RulesEngine(GameState state) {
+        this.state = state;
+    }
+
+    /**
+     * Sets the listener that is told about every change to the state.
+     * @param listener the listener
+     */
+    public void setListener(StateListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public GameState getState() {
+        return state;
+    }
+
+    @Override
+    public void startNewRound() {
+        state.nextRound();
+        for (AbstractPlayer player : state.getPlayers()) {
+            putHandBackToDeck(player);
+            dealCardsToPlayer(player);
+        }
+        for (AbstractPlayer player : state.getPlayers())
+            player.cardsDealt(state);
+    }
+
+    @Override
+    public void startNewRound(long roundSeed) {
+        state.nextRound();
+        for (AbstractPlayer player : state.getPlayers())
+            putHandBackToDeck(player);
+        state.getProgramCardDeck().shuffle(roundSeed);
+        for (AbstractPlayer player : state.getPlayers())
+            state.getProgramCardDeck().dealCard(player, HAND_SIZE);
+        for (AbstractPlayer player : state.getPlayers())
+            player.cardsDealt(state);
+    }
+
+    @Override
+    public void dealCardsToPlayer(AbstractPlayer player) {
+        ProgramCardDeck programCardDeck = state.getProgramCardDeck();
+        programCardDeck.shuffle(state.getRandom());
+        programCardDeck.dealCard(player, HAND_SIZE);
+    }
+
+    @Override
+    public void putHandBackToDeck(AbstractPlayer player) {
+        int cardsLeftOverInHand = player.getHandSize();
+        for (int i = 0; i < cardsLeftOverInHand; i++) {
+            state.getProgramCardDeck().addToTopOfDeck(player.getHand().getCard(0));
+            player.getHand().remove(0);
+        }
+    }
+
+    @Override
+    public void switchActivePlayer() {
+        if (state.getPhaseQueue().peek() != null) {
+            state.setActivePlayer(state.getPhaseQueue().peek());
+        }
+    }
+
+    @Override
+    public void updatePhaseQueue() {
+        PhaseScheduler phaseQueue = state.getPhaseQueue();
+        if (allPlayersReady() && phaseQueue.isEmpty()) {
+            // The order of the whole round is worked out when the registers are locked in
+            if (!phaseQueue.hasNextPhase())
+                phaseQueue.schedule(state.getPlayers());
+            if (phaseQueue.hasNextPhase())
+                phaseQueue.startNextPhase();
+        }
+    }
+
+    @Override
+    public AbstractPlayer executeNextRobotRegister() {
+        AbstractPlayer player = state.getPhaseQueue().poll();
+        assert player != null;
+        Robot robot = player.getRobot();
+        assert robot.getRegister().getSize() > 0;
+        // Ensures empty cards are not placed back in card deck
+        if (!(robot.getNextRegisterCard().cardValue == CardValue.PD))
+            state.getProgramCardDeck().addToTopOfDeck(robot.getNextRegisterCard());
+        Location from = robot.getLocation();
+        robot.executeNext();
+        state.getBoardIndex().moveRobot(from, robot.getLocation());
+        listener.robotChanged(robot);
+        return player;
+    }
+
+    @Override
+    public AbstractPlayer executePhase() {
+        switchActivePlayer();
+        AbstractPlayer player = executeNextRobotRegister();
+        checkIfActivePlayerOnFlag();
+        if (activePlayerOnHole()) {
+            robotHoleEvent();
+        }
+        return player;
+    }
+
+    @Override
+    public void checkIfActivePlayerOnFlag() {
+        AbstractPlayer activePlayer = state.getActivePlayer();
+        Location location = activePlayer.getRobot().getLocation();
+        Flag flag = state.getBoardIndex().flagAt(location.getX(), location.getY());
+        if (flag != null && canVisitFlag(flag)) {
+            activePlayer.addToVisitedFlags(flag);
+            updateArchiveMarker(flag.getLocation());
+            listener.flagVisited(activePlayer, flag);
+        }
+    }
+
+    @Override
+    public boolean canVisitFlag(Flag flag) {
+        AbstractPlayer activePlayer = state.getActivePlayer();
+        if (activePlayer.getVisitedFlags().size() > 0)
+            return flag.getFlagNumber() > activePlayer.getVisitedFlags().size();
+        return true;
+    }
+
+    @Override
+    public boolean checkIfWon() {
+        return state.getActivePlayer().getVisitedFlags().size() == state.getFlags().size();
+    }
+
+    /**
+     * Moves the active player's archive marker.
+     * @param location the new location of the archive marker
+     */
+    public void updateArchiveMarker(Location location) {
+        state.getActivePlayer().getRobot().setArchiveMarker(new ArchiveMarker(location));
+    }
+
+    @Override
+    public boolean activePlayerOnHole() {
+        return holeAtLocation(state.getActivePlayer().getRobot().getLocation());
+    }
+
+    @Override
+    public void robotHoleEvent() {
+        dealDamage(state.getActivePlayer().getRobot(), MAX_DAMAGE_TOKENS);
+    }
+
+    @Override
+    public void dealDamage(Robot robot, int amount) {
+        robot.dealDamageToken(amount);
+        if (robot.getDamageTokens() >= MAX_DAMAGE_TOKENS) destroyRobot(robot);
+        listener.robotChanged(robot);
+    }
+
+    private void destroyRobot(Robot robot) {
+        robot.destroy();
+        state.getDestroyedRobots().add(robot);
+        state.getProgramCardDeck().addToDeck(robot.getRegister());
+        robot.getRegister().clear();
+    }
+
+    @Override
+    public void spawnRobots() {
+        for (Robot spawnRobot : state.getDestroyedRobots()) {
+            Location archiveMarkerLocation = spawnRobot.getArchiveMarker().getLocation();
+            moveRobot(spawnRobot, archiveMarkerLocation);
+            spawnRobot.respawn(archiveMarkerLocation);
+            listener.robotChanged(spawnRobot);
+        }
+        state.getDestroyedRobots().clear();
+    }
+
+    @Override
+    public void cleanup() {
+        state.getActivePlayer().setReady(false);
+        spawnRobots();
+    }
+
+    @Override
+    public boolean readyCheck() {
+        for (AbstractPlayer player : state.getPlayers()) {
+            if (player.getRobot().getRegister().getSize() >= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean registersAreEmpty() {
+        for (AbstractPlayer player : state.getPlayers()) {
+            if (!player.getRobot().registerIsEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean allPlayersReady() {
+        for (AbstractPlayer player : state.getPlayers()) {
+            if (!player.getReady()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void setAllPlayersNotReady() {
+        for (AbstractPlayer player : state.getPlayers()) {
+            player.setReady(false);
+        }
+        state.getPhaseQueue().clear();
+    }
+
+    @Override
+    public boolean holeAtLocation(Location location) {
+        return state.getBoardIndex().isHole(location.getX(), location.getY());
+    }
+
+    @Override
+    public boolean robotAtLocation(Location location) {
+        return state.getBoardIndex().hasRobot(location.getX(), location.getY());
+    }
+
+    @Override
+    public boolean withinBounds(Location location) {
+        return state.getBoardIndex().inBounds(location.getX(), location.getY());
+    }
+
+    @Override
+    public boolean validSpawnLocation(Location location) {
+        return state.getBoardIndex().isValidSpawn(location.getX(), location.getY());
+    }
+
+    @Override
+    public void moveRobot(Robot robot, Location newLocation) {
+        state.getBoardIndex().moveRobot(robot.getLocation(), newLocation);
+        robot.setLocation(newLocation);
+        listener.robotChanged(robot);
+    }
+
+    @Override
+    public void robotMoved(Location from, Robot robot) {
+        state.getBoardIndex().moveRobot(from, robot.getLocation());
+        listener.robotChanged(robot);
+    }
+
+    /**
+     * Sets the whole state of a robot, as it is in another copy of the game.
+     * @param robot the robot
+     * @param location the location of the robot
+     * @param direction the direction of the robot
+     * @param damageTokens the damage tokens of the robot
+     * @param lifeTokens the life tokens of the robot
+     * @param destroyed true if the robot is destroyed and waiting to respawn
+     */
+    public void restoreRobot(Robot robot, Location location, Direction direction, int damageTokens, int lifeTokens, boolean destroyed) {
+        state.getBoardIndex().moveRobot(robot.getLocation(), location);
+        robot.restore(location, direction, damageTokens, lifeTokens, destroyed);
+        state.getDestroyedRobots().remove(robot);
+        if (destroyed)
+            state.getDestroyedRobots().add(robot);
+    }
+
+    /**
+     * Marks a flag as visited by a player, as it is in another copy of the game.
+     * @param player the player
+     * @param flagNumber the number of the flag
+     */
+    public void restoreVisitedFlag(AbstractPlayer player, int flagNumber) {
+        for (Flag flag : state.getFlags()) {
+            if (flag.getFlagNumber() == flagNumber && !player.getVisitedFlags().contains(flag)) {
+                player.addToVisitedFlags(flag);
+                player.getRobot().setArchiveMarker(new ArchiveMarker(flag.getLocation()));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package inf112.skeleton.app.game;
+
+/**
+ * A fixed-timestep clock for the simulation. The frame time is collected, and the clock tells
+ * how many simulation steps are due, so the game runs at the same pace however fast frames
+ * are rendered. The speed can be raised to run the simulation faster than real time.
+ */
+public class SimulationClock {
+    // Steps that are due after a long pause are dropped, so the game does not race to catch up
+    private static final int MAX_STEPS_PER_FRAME = 8;
+
+    private final float stepSeconds;
+    private float speed = 1;
+    private float accumulator;
+
+    /**
+     * @param stepSeconds the simulated time of one step, in seconds
+     */
+    public SimulationClock(float stepSeconds) {
+        if (stepSeconds <= 0)
+            throw new IllegalArgumentException("Step must be positive, was " + stepSeconds);
+        this.stepSeconds = stepSeconds;
+    }
+
+    /**
+     * Adds the time of a frame to the clock.
+     * @param delta the time since the last frame, in seconds
+     * @return the number of steps that are due
+     */
+    public int advance(float delta) {
+        accumulator += Math.max(0, delta) * speed;
+        int steps = (int) (accumulator / stepSeconds);
+        accumulator -= steps * stepSeconds;
+        return Math.min(steps, MAX_STEPS_PER_FRAME);
+    }
+
+    /**
+     * @return how far the clock is between the last step and the next, from 0 to 1
+     */
+    public float getAlpha() {
+        return Math.min(1, accumulator / stepSeconds);
+    }
+
+    /**
+     * Sets how fast the simulation runs compared to real time.
+     * @param speed 1 for real time, 2 for twice as fast, and so on
+     */
+    public void setSpeed(float speed) {
+        if (speed <= 0)
+            throw new IllegalArgumentException("Speed must be positive, was " + speed);
+        this.speed = speed;
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return the simulated time of one step, in seconds
+     */
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+}
@@ -0,0 +1,103 @@
+package inf112.skeleton.app.game;
+
+import java.io.PrintStream;
+
+/**
+ * Collects statistics over many simulated games. Reports can be merged, so games can be
+ * collected in parallel.
+ */
+public class SimulationReport {
+    private final int numberOfPlayers;
+    private final int numberOfFlags;
+
+    private int games;
+    private int finishedGames;
+    private long roundsToWin;
+    private final int[] winsBySeat;
+    // flagDistribution[n] is the number of players that had visited n flags when their game ended
+    private final long[] flagDistribution;
+
+    public SimulationReport(int numberOfPlayers, int numberOfFlags) {
+        this.numberOfPlayers = numberOfPlayers;
+        this.numberOfFlags = numberOfFlags;
+        winsBySeat = new int[numberOfPlayers];
+        flagDistribution = new long[numberOfFlags + 1];
+    }
+
+    /**
+     * Adds the result of a game to the report.
+     * @param result result of the game
+     */
+    public void add(GameResult result) {
+        games++;
+        if (result.hasWinner()) {
+            finishedGames++;
+            roundsToWin += result.getRounds();
+            winsBySeat[result.getWinnerId() - 1]++;
+        }
+        for (int flags : result.getFlagsCaptured()) {
+            flagDistribution[Math.min(flags, numberOfFlags)]++;
+        }
+    }
+
+    /**
+     * Adds every game of another report to this report.
+     * @param other the other report
+     */
+    public void merge(SimulationReport other) {
+        games += other.games;
+        finishedGames += other.finishedGames;
+        roundsToWin += other.roundsToWin;
+        for (int i = 0; i < winsBySeat.length; i++)
+            winsBySeat[i] += other.winsBySeat[i];
+        for (int i = 0; i < flagDistribution.length; i++)
+            flagDistribution[i] += other.flagDistribution[i];
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getFinishedGames() {
+        return finishedGames;
+    }
+
+    /**
+     * @return average number of rounds in the games that had a winner
+     */
+    public double getAverageRoundsToWin() {
+        if (finishedGames == 0)
+            return 0;
+        return (double) roundsToWin / finishedGames;
+    }
+
+    public int[] getWinsBySeat() {
+        return winsBySeat;
+    }
+
+    public long[] getFlagDistribution() {
+        return flagDistribution;
+    }
+
+    /**
+     * Prints the report.
+     * @param out where to print
+     * @param nanos how long the simulation took
+     */
+    public void print(PrintStream out, long nanos) {
+        double seconds = nanos / 1e9;
+        out.printf("Games: %d (%d finished, %d stopped after %d rounds)%n",
+                games, finishedGames, games - finishedGames, GameSimulator.MAX_ROUNDS);
+        out.printf("Time: %.2f s, %.1f games/sec%n", seconds, games / seconds);
+        out.printf("Average rounds to win: %.2f%n", getAverageRoundsToWin());
+        for (int i = 0; i < numberOfPlayers; i++) {
+            out.printf("Wins for player %d: %d%n", i + 1, winsBySeat[i]);
+        }
+        long players = (long) games * numberOfPlayers;
+        out.println("Flags captured per player at end of game:");
+        for (int i = 0; i < flagDistribution.length; i++) {
+            out.printf("  %d flags: %d (%.1f%%)%n", i, flagDistribution[i],
+                    players == 0 ? 0 : 100.0 * flagDistribution[i] / players);
+        }
+    }
+}
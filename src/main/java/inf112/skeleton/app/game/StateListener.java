@@ -0,0 +1,38 @@
+package inf112.skeleton.app.game;
+
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.player.AbstractPlayer;
+
+/**
+ * Is told by the {@link RulesEngine} about every change it makes to the state of the game,
+ * so the changes can be sent to the other players.
+ */
+public interface StateListener {
+
+    /**
+     * Listener for games that are not shared with anyone.
+     */
+    StateListener NONE = new StateListener() {
+        @Override
+        public void robotChanged(Robot robot) {
+        }
+
+        @Override
+        public void flagVisited(AbstractPlayer player, Flag flag) {
+        }
+    };
+
+    /**
+     * The location, direction, tokens or destroyed state of a robot has changed.
+     * @param robot the robot
+     */
+    void robotChanged(Robot robot);
+
+    /**
+     * A player has visited a flag.
+     * @param player the player
+     * @param flag the flag
+     */
+    void flagVisited(AbstractPlayer player, Flag flag);
+}
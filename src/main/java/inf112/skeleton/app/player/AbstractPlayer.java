@@ -1,5 +1,6 @@
 package inf112.skeleton.app.player;
 
+import Network.PlayerUpdate;
 import Network.RoboreliableClient;
 import Network.RoboreliableServer;
 import com.badlogic.gdx.InputAdapter;
@@ -8,6 +9,8 @@ import inf112.skeleton.app.cards.CardValue;
 import inf112.skeleton.app.Location;
 import inf112.skeleton.app.entity.Flag;
 import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.game.GameLog;
+import inf112.skeleton.app.game.GameState;
 import inf112.skeleton.app.cards.Card;
 
 import java.io.IOException;
@@ -64,6 +67,11 @@ public abstract class AbstractPlayer extends InputAdapter implements IAbstractPl
         visitedFlags.add(flag);
     }
 
+    @Override
+    public void clearVisitedFlags() {
+        visitedFlags.clear();
+    }
+
     @Override
     public void putInDeck(int index, CardDeck cardDeck) {
         cardDeck.addToTopOfDeck(getCard(index));
@@ -120,6 +128,14 @@ public abstract class AbstractPlayer extends InputAdapter implements IAbstractPl
         }
     }
 
+    /**
+     * Called when the cards of a round have been dealt. Players who program their robot from
+     * the screen do nothing here.
+     * @param state the game the player is playing
+     */
+    public void cardsDealt(GameState state) {
+    }
+
     public CardDeck pickCards(int cardPicks) {
         CardDeck register = new CardDeck();
         Scanner input = new Scanner(System.in);
@@ -150,17 +166,22 @@ public abstract class AbstractPlayer extends InputAdapter implements IAbstractPl
     }
 
 
-    public ArrayList<AbstractPlayer> getPlayersFromServer() throws IOException, ClassNotFoundException {
+    /**
+     * Waits until every player has programmed their robot.
+     * @return the update of every player in the game
+     * @throws IOException .
+     */
+    public ArrayList<PlayerUpdate> getPlayersFromServer() throws IOException {
         if (isHost) {
             // read in new players to server as long as the server hasn't received all players
             while (!RoboreliableServer.checkIfAllPlayersReceived()) {
-                System.out.println("inside while");
+                GameLog.println("inside while");
                 RoboreliableServer.receivePlayersFromClients();
             }
-            return RoboreliableServer.getPlayerList();
+            return RoboreliableServer.getPlayerUpdates();
         } else {
             while (!RoboreliableClient.allPlayersReceived()) {
-                System.out.println("inside guestwhile");
+                GameLog.println("inside guestwhile");
             }
             return RoboreliableClient.getPlayersFromServer();
         }
@@ -168,10 +189,10 @@ public abstract class AbstractPlayer extends InputAdapter implements IAbstractPl
 
     public void sendToServer() throws IOException {
         if (isHost) {
-            System.out.println("size host" + getRobot().getRegister().getSize());
+            GameLog.println("size host" + getRobot().getRegister().getSize());
             RoboreliableServer.receiveHostPlayer(this);
         } else {
-            System.out.println("size " + this.getRobot().getRegister().getSize());
+            GameLog.println("size " + this.getRobot().getRegister().getSize());
             RoboreliableClient.sendPlayerToServer(this);
         }
     }
@@ -189,10 +210,13 @@ public abstract class AbstractPlayer extends InputAdapter implements IAbstractPl
 
     @Override
     public int compareTo(AbstractPlayer otherPlayer) {
-        try {
-            return (getRobot().getNextRegisterCard().compareTo(otherPlayer.getRobot().getNextRegisterCard()));
-        } catch (Exception e) {
-            throw new NullPointerException("Can't compare empty registers");
-        }
+        return Integer.compare(nextPriority(), otherPlayer.nextPriority());
+    }
+
+    /**
+     * @return priority of the next card in the register, or -1 if the register is empty
+     */
+    private int nextPriority() {
+        return getRobot().getRegister().getSize() == 0 ? -1 : getRobot().getNextRegisterCard().getPriorityValue();
     }
 }
\ No newline at end of file
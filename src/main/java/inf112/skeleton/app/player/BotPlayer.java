@@ -0,0 +1,305 @@
+package inf112.skeleton.app.player;
+
+import inf112.skeleton.app.Direction;
+import inf112.skeleton.app.Location;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.game.BoardIndex;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.RulesEngine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A player that programs its own robot. Every ordered choice of cards from the hand is played
+ * out on the board, without rendering, and the program that gets closest to the next flag
+ * without ending a register on a hole is picked. Choices that only swap cards of the same value
+ * move the robot the same way, so each of them is played out once. The choices are split by
+ * their first card and searched in parallel.
+ */
+public class BotPlayer extends AbstractPlayer {
+    // Reaching a flag is worth more than any distance on the board
+    private static final int FLAG_SCORE = 100_000;
+    private static final int WIN_SCORE = 10_000_000;
+    private static final int HOLE_PENALTY = 1_000_000;
+    private static final int DISTANCE_PENALTY = 10;
+    // For every register that ends next to a hole, since the robot is one mistake from falling in
+    private static final int HOLE_NEIGHBOUR_PENALTY = 3;
+
+    private int programsEvaluated;
+    // The game the bot was last dealt cards in
+    private GameState game;
+
+    public BotPlayer(Location location, int playerId) {
+        super(location, playerId);
+    }
+
+    /**
+     * Picks the cards of the register, and takes them out of the hand.
+     * @param state the game the bot is playing
+     * @return the register, with as many cards as the registers hold, or the whole hand if it is smaller
+     */
+    public CardDeck pickCards(GameState state) {
+        return pickCards(state, RulesEngine.REGISTER_SIZE);
+    }
+
+    private CardDeck pickCards(GameState state, int cardPicks) {
+        int picks = Math.min(cardPicks, getHandSize());
+        int[] program = findProgram(state, picks);
+
+        CardDeck register = new CardDeck();
+        for (int index : program)
+            register.addToDeck(getCard(index));
+        // Removed from the back, so the indices of the other cards do not change
+        int[] sorted = program.clone();
+        Arrays.sort(sorted);
+        for (int i = sorted.length - 1; i >= 0; i--)
+            getHand().remove(sorted[i]);
+        return register;
+    }
+
+    /**
+     * Programs the robot and tells the game the bot is ready.
+     * @param state the game the bot is playing
+     */
+    public void program(GameState state) {
+        getRobot().updateRegister(pickCards(state));
+        setReady(true);
+    }
+
+    /**
+     * Programs the robot as soon as the cards are dealt, so the bot is ready when the other
+     * players have picked their cards.
+     */
+    @Override
+    public void cardsDealt(GameState state) {
+        game = state;
+        program(state);
+    }
+
+    /**
+     * Picks cards on the board of the game the bot was last dealt cards in, instead of
+     * asking on the console.
+     * @throws IllegalStateException if the bot has not been dealt cards in a game
+     */
+    @Override
+    public CardDeck pickCards(int cardPicks) {
+        if (game == null)
+            throw new IllegalStateException("The bot has not been dealt cards in a game");
+        return pickCards(game, cardPicks);
+    }
+
+    /**
+     * @return the number of programs played out the last time the bot picked cards
+     */
+    public int getProgramsEvaluated() {
+        return programsEvaluated;
+    }
+
+    /**
+     * @return the indices in the hand of the cards of the best program, in order
+     */
+    private int[] findProgram(GameState state, int picks) {
+        programsEvaluated = 0;
+        if (picks == 0)
+            return new int[0];
+        Search search = new Search(state, this, picks);
+        Result best = null;
+        // One task for each value the program can start with. Forked on the pool of the caller,
+        // or the common pool if the caller is not in one
+        List<FirstCardTask> tasks = new ArrayList<>();
+        for (int i = 0; i < search.order.length; i++) {
+            if (i > 0 && search.values[i] == search.values[i - 1])
+                continue;
+            tasks.add(new FirstCardTask(search, i));
+        }
+        for (FirstCardTask task : tasks)
+            task.fork();
+        for (FirstCardTask task : tasks) {
+            Result result = task.join();
+            programsEvaluated += result.evaluated;
+            if (best == null || result.score > best.score)
+                best = result;
+        }
+
+        int[] program = new int[picks];
+        for (int i = 0; i < picks; i++)
+            program[i] = search.order[best.program[i]];
+        return program;
+    }
+
+    /**
+     * What every search task reads: the hand sorted by card value, and the board.
+     */
+    private static class Search {
+        // Hand indices sorted by value, and highest priority first among cards of the same value
+        private final int[] order;
+        private final CardValue[] values;
+        private final int picks;
+
+        private final BoardIndex board;
+        private final int width;
+        private final int height;
+        private final int startX;
+        private final int startY;
+        private final Direction startDirection;
+        // Position of each flag still to visit, in the order they must be visited
+        private final int[] flagX;
+        private final int[] flagY;
+
+        Search(GameState state, AbstractPlayer player, int picks) {
+            this.picks = picks;
+            CardDeck hand = player.getHand();
+            Integer[] sorted = new Integer[hand.getSize()];
+            for (int i = 0; i < sorted.length; i++)
+                sorted[i] = i;
+            Arrays.sort(sorted, (a, b) -> {
+                int byValue = hand.getCardValueAt(a).compareTo(hand.getCardValueAt(b));
+                return byValue != 0 ? byValue : hand.getCard(b).getPriorityValue() - hand.getCard(a).getPriorityValue();
+            });
+            order = new int[sorted.length];
+            values = new CardValue[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                order[i] = sorted[i];
+                values[i] = hand.getCardValueAt(sorted[i]);
+            }
+
+            board = state.getBoardIndex();
+            width = state.getWidth();
+            height = state.getHeight();
+            Location location = player.getRobot().getLocation();
+            startX = location.getX();
+            startY = location.getY();
+            startDirection = player.getRobot().getDirection();
+
+            int visited = player.getVisitedFlags().size();
+            int left = Math.max(0, state.getFlags().size() - visited);
+            flagX = new int[left];
+            flagY = new int[left];
+            for (Flag flag : state.getFlags()) {
+                int next = flag.getFlagNumber() - visited - 1;
+                if (next >= 0 && next < left) {
+                    flagX[next] = flag.getLocation().getX();
+                    flagY[next] = flag.getLocation().getY();
+                }
+            }
+        }
+
+        /**
+         * Plays out a program the way the rules engine executes registers, with no other robots.
+         * @param program positions in the sorted hand
+         * @return the score of the program, higher is better
+         */
+        int score(int[] program) {
+            int x = startX, y = startY;
+            Direction direction = startDirection;
+            int reached = 0;
+            int risk = 0;
+            for (int i = 0; i < picks; i++) {
+                CardValue value = values[program[i]];
+                switch (value) {
+                    case F1:
+                    case F2:
+                    case F3:
+                    case B1:
+                        Direction heading = value == CardValue.B1 ? direction.opposite() : direction;
+                        int steps = value == CardValue.F2 ? 2 : value == CardValue.F3 ? 3 : 1;
+                        x = Math.max(0, Math.min(width - 1, x + heading.getDx() * steps));
+                        y = Math.max(0, Math.min(height - 1, y + heading.getDy() * steps));
+                        break;
+                    case RR:
+                        direction = direction.rotate(1);
+                        break;
+                    case RL:
+                        direction = direction.rotate(-1);
+                        break;
+                    case UT:
+                        direction = direction.rotate(2);
+                        break;
+                    default:
+                        break;
+                }
+                if (board.isHole(x, y))
+                    return reached * FLAG_SCORE - HOLE_PENALTY;
+                if (reached < flagX.length && x == flagX[reached] && y == flagY[reached]) {
+                    reached++;
+                    if (reached == flagX.length)
+                        return WIN_SCORE - i;
+                }
+                if (board.isHole(x + 1, y) || board.isHole(x - 1, y) || board.isHole(x, y + 1) || board.isHole(x, y - 1))
+                    risk++;
+            }
+            int distance = reached < flagX.length ? Math.abs(flagX[reached] - x) + Math.abs(flagY[reached] - y) : 0;
+            return reached * FLAG_SCORE - distance * DISTANCE_PENALTY - risk * HOLE_NEIGHBOUR_PENALTY;
+        }
+    }
+
+    private static class Result {
+        private final int score;
+        private final int[] program;
+        private final int evaluated;
+
+        Result(int score, int[] program, int evaluated) {
+            this.score = score;
+            this.program = program;
+            this.evaluated = evaluated;
+        }
+    }
+
+    /**
+     * Searches every program starting with one card of the sorted hand.
+     */
+    private static class FirstCardTask extends RecursiveTask<Result> {
+        private final Search search;
+        private final int first;
+
+        private final int[] program;
+        private final boolean[] used;
+        private int bestScore = Integer.MIN_VALUE;
+        private int[] bestProgram;
+        private int evaluated;
+
+        FirstCardTask(Search search, int first) {
+            this.search = search;
+            this.first = first;
+            program = new int[search.picks];
+            used = new boolean[search.order.length];
+        }
+
+        @Override
+        protected Result compute() {
+            program[0] = first;
+            used[first] = true;
+            place(1);
+            return new Result(bestScore, bestProgram, evaluated);
+        }
+
+        /**
+         * Tries every card for a position of the program. Of the unused cards of the same value,
+         * only the first is tried, so no program is played out twice.
+         */
+        private void place(int position) {
+            if (position == search.picks) {
+                evaluated++;
+                int score = search.score(program);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestProgram = program.clone();
+                }
+                return;
+            }
+            for (int i = 0; i < used.length; i++) {
+                if (used[i] || (i > 0 && search.values[i] == search.values[i - 1] && !used[i - 1]))
+                    continue;
+                used[i] = true;
+                program[position] = i;
+                place(position + 1);
+                used[i] = false;
+            }
+        }
+    }
+}
@@ -29,6 +29,11 @@ public interface IAbstractPlayer {
      */
     void addToVisitedFlags(Flag flag);
 
+    /**
+     * Forgets every visited flag.
+     */
+    void clearVisitedFlags();
+
     /**
      * Put a card from the player's hand into a deck.
      * @param index The position of the card in the hand
@@ -4,15 +4,28 @@ import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.SkinLoader;
 import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import inf112.skeleton.app.Map;
+
+import java.util.HashMap;
 
 /**
- * Represents all assets in the game.
+ * Represents all assets in the game. The assets are loaded in the background, a little on
+ * every frame, so the game never stops to wait for a file.
  */
 public class Assets {
+    // How long each update may load assets, so frames are not delayed
+    private static final int UPDATE_MILLIS = 8;
+
     private AssetManager assetManager = new AssetManager();
+    // One label style per font color, all sharing the font of the skin
+    private final HashMap<Color, Label.LabelStyle> labelStyles = new HashMap<>();
     public static final AssetDescriptor<Texture> menuIMG = new AssetDescriptor<Texture>
             ("assets/logo.png",
                     Texture.class);
@@ -24,20 +37,83 @@ public class Assets {
             "assets/uiskin.json",
             Skin.class,
             new SkinLoader.SkinParameter("assets/uiskin.atlas"));
+    // The robot and HUD art, packed into one texture by main.AtlasPacker
+    public static final AssetDescriptor<TextureAtlas> gameATLAS = new AssetDescriptor<>(
+            "assets/gameAtlas.atlas",
+            TextureAtlas.class);
     public static final AssetDescriptor<Music> menuMUSIC = new AssetDescriptor<Music>
             ("assets/RoboRallyTheme.ogg",
             Music.class);
 
     /**
-     * Loads all the games assets.
+     * Queues all the games assets for loading. They are loaded by {@link #update()}.
      */
     public void loadAll() {
         assetManager.load(menuIMG);
         assetManager.load(menuATLAS);
-        System.out.println("atlas loaded.");
         assetManager.load(menuSKIN);
-        System.out.println("skin loaded.");
         assetManager.load(menuMUSIC);
+        assetManager.load(gameATLAS);
+    }
+
+    /**
+     * Loads queued assets for a few milliseconds.
+     * @return true if every queued asset is loaded
+     */
+    public boolean update() {
+        return assetManager.update(UPDATE_MILLIS);
+    }
+
+    /**
+     * @return how much of the queued assets is loaded, from 0 to 1
+     */
+    public float getProgress() {
+        return assetManager.getProgress();
+    }
+
+    /**
+     * Returns the descriptor of the tiled map of a map.
+     * @param map the map
+     * @return the descriptor
+     */
+    public static AssetDescriptor<TiledMap> mapDescriptor(Map map) {
+        return new AssetDescriptor<>(map.getFileName(), TiledMap.class);
+    }
+
+    /**
+     * Queues the tiled map of a map for loading, unless it is loaded or queued already.
+     * @param map the map
+     */
+    public void preloadMap(Map map) {
+        if (!assetManager.contains(map.getFileName()))
+            assetManager.load(mapDescriptor(map));
+    }
+
+    /**
+     * @param map the map
+     * @return true if the tiled map of the map is loaded
+     */
+    public boolean isMapLoaded(Map map) {
+        return assetManager.isLoaded(map.getFileName(), TiledMap.class);
+    }
+
+    /**
+     * Returns the tiled map of a map. If it has not been loaded in the background, it is
+     * loaded now.
+     * @param map the map
+     * @return the tiled map
+     */
+    public TiledMap getTiledMap(Map map) {
+        preloadMap(map);
+        assetManager.finishLoadingAsset(map.getFileName());
+        return assetManager.get(mapDescriptor(map));
+    }
+
+    /**
+     * @return the atlas with the robot and HUD art
+     */
+    public TextureAtlas getAtlas() {
+        return assetManager.get(gameATLAS);
     }
 
     /**
@@ -48,5 +124,31 @@ public class Assets {
         return assetManager;
     }
 
+    /**
+     * Returns the font every label in the game is drawn with. It belongs to the menu skin,
+     * so it is loaded and disposed together with the other assets.
+     * @return the shared font
+     */
+    public BitmapFont getFont() {
+        return assetManager.get(menuSKIN).getFont("default-font");
+    }
+
+    /**
+     * Returns the shared label style for a font color. Labels using the same style share
+     * both the style and the font, so making labels never loads new textures.
+     * @param color the font color
+     * @return the label style
+     */
+    public Label.LabelStyle getLabelStyle(Color color) {
+        return labelStyles.computeIfAbsent(color, c -> new Label.LabelStyle(getFont(), c));
+    }
+
+    /**
+     * Disposes every asset of the game, including the shared font.
+     */
+    public void dispose() {
+        labelStyles.clear();
+        assetManager.dispose();
+    }
 
 }
\ No newline at end of file
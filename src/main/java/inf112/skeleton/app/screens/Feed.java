@@ -0,0 +1,84 @@
+package inf112.skeleton.app.screens;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The messages of the event feed, kept in a ring buffer of fixed capacity. When the feed
+ * is full, a new message replaces the oldest one, so adding a message never depends on how
+ * long the game has been running. Only the newest capacity messages are kept, so the history
+ * and the export of a long game start partway through it.
+ */
+public class Feed {
+    private final String[] messages;
+    // Index of the slot the next message is written to
+    private int next;
+    private int size;
+
+    public Feed(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        messages = new String[capacity];
+    }
+
+    /**
+     * Adds a message to the feed, replacing the oldest one if the feed is full.
+     * @param message the message
+     */
+    public void add(String message) {
+        messages[next] = message;
+        next = (next + 1) % messages.length;
+        if (size < messages.length)
+            size++;
+    }
+
+    /**
+     * Returns a message by how many messages have been added after it.
+     * @param age 0 for the newest message, 1 for the one before it, and so on
+     * @return the message, or null if the feed holds no message that old
+     */
+    public String get(int age) {
+        if (age < 0 || age >= size)
+            return null;
+        return messages[Math.floorMod(next - 1 - age, messages.length)];
+    }
+
+    /**
+     * @return the number of messages in the feed
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the largest number of messages the feed holds
+     */
+    public int getCapacity() {
+        return messages.length;
+    }
+
+    /**
+     * @return every message the feed still holds, oldest first
+     */
+    public List<String> getHistory() {
+        List<String> history = new ArrayList<>(size);
+        for (int age = size - 1; age >= 0; age--)
+            history.add(get(age));
+        return history;
+    }
+
+    /**
+     * Writes every message the feed still holds, oldest first, one message per line.
+     * @param writer where the messages are written
+     * @throws IOException if writing fails
+     */
+    public void export(Writer writer) throws IOException {
+        for (String message : getHistory()) {
+            writer.write(message);
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+    }
+}
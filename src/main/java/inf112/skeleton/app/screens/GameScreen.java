@@ -1,6 +1,7 @@
 package inf112.skeleton.app.screens;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -8,7 +9,10 @@ import com.badlogic.gdx.math.Interpolation;
 import inf112.skeleton.app.Board;
 import inf112.skeleton.app.Map;
 import inf112.skeleton.app.RoboRally;
+import inf112.skeleton.app.cards.Card;
 import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.game.FrameMetrics;
 import inf112.skeleton.app.player.AbstractPlayer;
 import inf112.skeleton.app.player.TestPlayer;
 
@@ -22,6 +26,9 @@ public class GameScreen extends ScreenAdapter {
     private final Board board;
     private final SpriteBatch batch;
     private final Hud hud;
+    // Where the time of a frame goes. F3 shows the overlay and F4 exports the metrics and the feed
+    private final FrameMetrics metrics = new FrameMetrics();
+    private final MetricsOverlay metricsOverlay;
     private boolean roundHasBeenStarted = false;
     private boolean networkPlayerSent = false;
     private boolean networkPlayersReceived = false;
@@ -29,9 +36,11 @@ public class GameScreen extends ScreenAdapter {
     public GameScreen(RoboRally game, Board board) {
         this.game = game;
         this.board = board;
+        board.create(game.getAssets());
         batch = new SpriteBatch();
 
-        hud = new Hud(batch, this);
+        hud = new Hud(batch, this, game.getAssets());
+        metricsOverlay = new MetricsOverlay(metrics, game.getAssets().getFont());
     }
 
     @Override
@@ -40,23 +49,37 @@ public class GameScreen extends ScreenAdapter {
 
     @Override
     public void render(float delta) {
+        metrics.beginFrame();
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL30.GL_COLOR_BUFFER_BIT);
+        metrics.begin(FrameMetrics.Phase.ROBOT_SPRITES);
         board.renderPlayerTextures();
+        metrics.end(FrameMetrics.Phase.ROBOT_SPRITES);
+        metrics.begin(FrameMetrics.Phase.MAP_RENDER);
         board.renderer.render();
+        metrics.end(FrameMetrics.Phase.MAP_RENDER);
+        metrics.begin(FrameMetrics.Phase.ROBOT_ANIMATIONS);
+        board.renderRobotAnimations();
+        metrics.end(FrameMetrics.Phase.ROBOT_ANIMATIONS);
 
         if (!(board.getActivePlayer() instanceof TestPlayer)) {
+            metrics.begin(FrameMetrics.Phase.HUD_DRAW);
             batch.setProjectionMatrix(hud.getStage().getCamera().combined);
             hud.getStage().act(delta); //act the Hud
             hud.getStage().draw(); //draw the Hud
+            metrics.end(FrameMetrics.Phase.HUD_DRAW);
             //hud.setPlayerHandInHud(board.getActivePlayer().getHand());
+            metrics.begin(FrameMetrics.Phase.HUD_UPDATE);
             hud.update();
+            metrics.end(FrameMetrics.Phase.HUD_UPDATE);
         }
 
         if (!Board.firstRender) {
             if (!(board.getActivePlayer() instanceof TestPlayer)) {
-                gameLoop();
+                metrics.begin(FrameMetrics.Phase.GAME_LOOP);
+                gameLoop(delta);
                 hud.update();
+                metrics.end(FrameMetrics.Phase.GAME_LOOP);
             } else {
                 board.checkIfTurnIsOver();
                 board.checkIfActivePlayerOnFlag();
@@ -68,6 +91,16 @@ public class GameScreen extends ScreenAdapter {
             }
         }
         Board.firstRender = false;
+        metrics.endFrame();
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3))
+            metricsOverlay.toggle();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            long time = System.currentTimeMillis();
+            metricsOverlay.export("metrics-" + time);
+            hud.exportFeed("feed-" + time);
+        }
+        metricsOverlay.draw(batch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
     }
 
     /**
@@ -82,9 +115,11 @@ public class GameScreen extends ScreenAdapter {
     }
 
     /**
-     * The game loop for the game.
+     * The game loop for the game. Registers are executed on the steps of the board's clock,
+     * so the pace of the game does not depend on the frame rate.
+     * @param delta the time since the last frame, in seconds
      */
-    public void gameLoop() {
+    public void gameLoop(float delta) {
         // if all robots have performed their phase
         if (!roundHasBeenStarted) {
             if (board.getPhaseQueue().isEmpty()) {
@@ -139,32 +174,35 @@ public class GameScreen extends ScreenAdapter {
                     roundHasBeenStarted = false;
                     networkPlayersReceived = false;
                     networkPlayerSent = false;
-                    return;
+                } else {
+                    board.updatePhaseQueue();
                 }
-                board.updatePhaseQueue();
             }
-            if (board.time % 60 == 0) {
-                board.switchActivePlayer();
-                hud.addToFeed(getPlayer().getName() + ": " + CardValue.extendedCardValue(getPlayer().getRobot().getNextRegisterCard()) + " | Priority Value: " + getPlayer().getRobot().getNextRegisterCard().getPriorityValue());
-                board.executeNextRobotRegister();
-                board.checkIfActivePlayerOnFlag();
+        }
 
-                if (board.activePlayerOnHole()) {
-                    board.robotHoleEvent();
-                    hud.addToFeed(getPlayer().getName() + " fell down a hole and lost a life!");
-                }
-            }
+        // Registers are executed on the steps of the board's clock, the same way the board does
+        if (board.executeSteps(delta, this::registerExecuted)) {
+            hud.addToFeed("Victory!");
+            System.out.println("Player won!");
+            System.out.close();
+        }
+    }
 
-            if (getPlayer().getRobot().getLifeTokens() == 0) {
-                hud.addToFeed(getPlayer().getName() + "'S ROBOT IS DAMAGED BEYOND REPAIR!");
-            }
-            if (board.checkIfWon()) {
-                hud.addToFeed("Victory!");
-                System.out.println("Player won!");
-                System.out.close();
+    /**
+     * Tells the feed about a register that has been executed.
+     * @param player the player whose register was executed
+     * @param card the card of the register
+     */
+    private void registerExecuted(AbstractPlayer player, Card card) {
+        hud.addToFeed(player.getName() + ": " + CardValue.extendedCardValue(card) + " | Priority Value: " + card.getPriorityValue());
+        Robot robot = player.getRobot();
+        // A robot that falls in a hole is destroyed, and stays there until the cleanup
+        if (robot.getIsDestroyed() && board.holeAtLocation(robot.getLocation())) {
+            hud.addToFeed(player.getName() + " fell down a hole and lost a life!");
+            if (robot.getLifeTokens() == 0) {
+                hud.addToFeed(player.getName() + "'S ROBOT IS DAMAGED BEYOND REPAIR!");
             }
         }
-        board.time++;
     }
 
     /**
@@ -197,6 +235,10 @@ public class GameScreen extends ScreenAdapter {
         }
     }
 
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * @return the game board
      */
@@ -1,12 +1,13 @@
 package inf112.skeleton.app.screens;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
@@ -16,26 +17,27 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import inf112.skeleton.app.cards.Card;
 import inf112.skeleton.app.cards.CardDeck;
 import inf112.skeleton.app.cards.CardValue;
-import inf112.skeleton.app.entity.Robot;
 import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.BotPlayer;
 
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Hashtable;
 
 /**
  * The Heads Up Display for the game. Shows all the information around the board
- * itself, including cards, etc.
+ * itself, including cards, etc. The widgets are made once, and update only changes
+ * the ones whose player, hand or life state has changed since the last frame.
  */
 public class Hud implements IHud {
     public Stage stage;
     private FitViewport stageViewport;
     private final SpriteBatch spriteBatch;
 
-    // Atlases
-    private TextureAtlas cardSprites;
-    private TextureAtlas readyButtonSprites;
-    private TextureAtlas lifeTokenSprites;
-    private TextureAtlas powerDownSprites;
+    // All the art of the HUD is in the game atlas
+    private TextureAtlas sprites;
 
     // Move texture regions
     private TextureRegion leftTurn;
@@ -61,7 +63,7 @@ public class Hud implements IHud {
     private Drawable greenLifeDrawable;
     private Drawable redLifeDrawable;
     private Table lifeTokenTable;
-    private Hashtable<Robot, ImageButton> robotLife = new Hashtable<>();
+    private final ImageButton[] lifeTokenButtons = new ImageButton[3];
 
     // Current card
     protected Drawable currentCardDrawable;
@@ -69,33 +71,49 @@ public class Hud implements IHud {
 
     // Power down button
     private Drawable powerDownDrawable;
-    private Button powerDownButton;
+    private ImageButton powerDownButton;
     private TextureRegion powerDownSprite;
     private boolean powerDownState = false;
 
     // Ready button
     private Drawable readyDrawable;
-    private Button readyButton;
+    private ImageButton readyButton;
     private TextureRegion readySprite;
 
     private Table handTable;
     private final GameScreen gameScreen;
+    private final Assets assets;
 
     protected CardDeck playerHand;
     private CardDeck selectedCards;
     private AbstractPlayer player;
 
     private Label playerNameLabel;
-    private ArrayList<Message> feed;
+    // The feed shows its newest messages in a fixed set of labels, from the top down.
+    // It keeps the newest FEED_CAPACITY messages, which is also all that F4 exports
+    private static final int FEED_CAPACITY = 1000;
+    private static final int FEED_LINES = 35;
+    private Feed feed;
+    private final Label[] feedLabels = new Label[FEED_LINES];
+    // Number of newer messages scrolled past
+    private int feedOffset;
+    private boolean feedChanged;
+
+    // What the widgets show, so they are only changed when the game changes
+    private AbstractPlayer shownPlayer;
+    private int shownLifeTokens = -1;
+    private Boolean shownReady;
+    private Boolean shownPowerDown;
 
     /**
      * This hashtable connects the appropriate button to a given card.
      */
     public Hashtable<Actor, Card> buttonCards;
 
-    public Hud(SpriteBatch spriteBatch, GameScreen gameScreen) {
+    public Hud(SpriteBatch spriteBatch, GameScreen gameScreen, Assets assets) {
         this.spriteBatch = spriteBatch;
         this.gameScreen = gameScreen;
+        this.assets = assets;
         create();
     }
 
@@ -115,20 +133,17 @@ public class Hud implements IHud {
         lifeTokenTable = new Table();
         lifeTokenTable.setPosition(600,300);
 
-        // Loading atlases
-        cardSprites = new TextureAtlas("assets/cardAtlas.atlas");
-        readyButtonSprites = new TextureAtlas("assets/readyButtonAtlas.atlas");
-        lifeTokenSprites = new TextureAtlas("assets/lifeTokenAtlas.atlas");
-        powerDownSprites = new TextureAtlas("assets/powerDownAtlas.atlas");
+        // Loading atlas
+        sprites = assets.getAssetManager().get(Assets.gameATLAS);
 
         // Card sprites
-        leftTurn = cardSprites.findRegion("leftTurn");
-        rightTurn = cardSprites.findRegion("rightTurn");
-        uTurn = cardSprites.findRegion("uTurn");
-        backUp = cardSprites.findRegion("backUp");
-        moveOnce = cardSprites.findRegion("moveOnce");
-        moveTwice = cardSprites.findRegion("moveTwice");
-        moveThrice = cardSprites.findRegion("moveThrice");
+        leftTurn = sprites.findRegion("leftTurn");
+        rightTurn = sprites.findRegion("rightTurn");
+        uTurn = sprites.findRegion("uTurn");
+        backUp = sprites.findRegion("backUp");
+        moveOnce = sprites.findRegion("moveOnce");
+        moveTwice = sprites.findRegion("moveTwice");
+        moveThrice = sprites.findRegion("moveThrice");
 
         // Card drawables
         leftTurnCard = new TextureRegionDrawable(leftTurn);
@@ -140,20 +155,63 @@ public class Hud implements IHud {
         moveThriceCard = new TextureRegionDrawable(moveThrice);
 
         // Life token sprites
-        greenLife = lifeTokenSprites.findRegion("lifeTokenGreen");
-        redLife = lifeTokenSprites.findRegion("lifeTokenRed");
+        greenLife = sprites.findRegion("lifeTokenGreen");
+        redLife = sprites.findRegion("lifeTokenRed");
 
         // Life token drawables
         greenLifeDrawable = new TextureRegionDrawable(greenLife);
         redLifeDrawable = new TextureRegionDrawable(redLife);
 
         // Ready sprite
-        readySprite = readyButtonSprites.findRegion("ready");
+        readySprite = sprites.findRegion("ready");
 
         // Power Down sprite
-        powerDownSprite = powerDownSprites.findRegion("pdOff");
+        powerDownSprite = sprites.findRegion("pdOff");
 
-        feed = new ArrayList<>();
+        feed = new Feed(FEED_CAPACITY);
+        for (int i = 0; i < FEED_LINES; i++) {
+            feedLabels[i] = createLabel("");
+            feedLabels[i].setPosition(860, 700 - 20 * i);
+        }
+        stage.addListener(new InputListener() {
+            @Override
+            public boolean scrolled(InputEvent event, float x, float y, int amount) {
+                scrollFeed(-amount);
+                return true;
+            }
+        });
+
+        // Widgets are made and added to the stage once
+        addLifeTokenButtons();
+        setUpReadyButton(readySprite);
+        transformReadyButton();
+        setUpPowerDownButton(powerDownSprite);
+        transformPowerDownButton();
+        playerNameLabel = createLabel("");
+        playerNameLabel.setPosition(610, 700);
+        addWidgetsToStage();
+    }
+
+    private void addLifeTokenButtons() {
+        for (int i = 0; i < lifeTokenButtons.length; i++) {
+            ImageButton token = new ImageButton(greenLifeDrawable);
+            token.setTransform(true);
+            token.setPosition(620 + 80 * i, 280);
+            token.setScale(0.28f);
+            lifeTokenButtons[i] = token;
+        }
+    }
+
+    private void addWidgetsToStage() {
+        stage.addActor(lifeTokenTable);
+        for (ImageButton token : lifeTokenButtons)
+            stage.addActor(token);
+        stage.addActor(handTable);
+        stage.addActor(readyButton);
+        stage.addActor(powerDownButton);
+        stage.addActor(playerNameLabel);
+        for (Label label : feedLabels)
+            stage.addActor(label);
     }
 
     @Override
@@ -182,101 +240,91 @@ public class Hud implements IHud {
             updateHashTable();
         }
 
-        addLifeTokens();
-
-        stage.addActor(lifeTokenTable);
-
-        // Ready button
-        setUpReadyButton(readySprite);
-        transformReadyButton();
-
-        // Power down button
-        setUpPowerDownButton(powerDownSprite);
-        transformPowerDownButton();
+        if (player != shownPlayer) {
+            populateLabels();
+            shownPlayer = player;
+        }
+        if (player.getRobot().getLifeTokens() != shownLifeTokens)
+            addLifeTokens();
+        if (!Boolean.valueOf(player.getReady()).equals(shownReady)) {
+            shownReady = player.getReady();
+            readyButton.getStyle().imageUp = new TextureRegionDrawable(createReadySprite());
+        }
+        if (!Boolean.valueOf(powerDownState).equals(shownPowerDown)) {
+            shownPowerDown = powerDownState;
+            powerDownButton.getStyle().imageUp = powerDownDrawable(powerDownState);
+        }
 
-        populateLabels();
+        if (feedChanged)
+            printFeed();
 
-        stage.addActor(handTable);
-        stage.addActor(readyButton);
-        stage.addActor(powerDownButton);
-        stage.addActor(playerNameLabel);
-        printFeed();
-        Gdx.input.setInputProcessor(stage);
+        if (Gdx.input.getInputProcessor() != stage)
+            Gdx.input.setInputProcessor(stage);
     }
 
     @Override
     public void addLifeTokens() {
-        ImageButton token1 = new ImageButton(greenLifeDrawable);
-        ImageButton token2 = new ImageButton(greenLifeDrawable);
-        ImageButton token3 = new ImageButton(greenLifeDrawable);
-
         int lifeTokens = player.getRobot().getLifeTokens();
-
-        if (lifeTokens <= 2) {
-            token3 = new ImageButton(redLifeDrawable);
-            if (lifeTokens <= 1) {
-                token2 = new ImageButton(redLifeDrawable);
-                if (lifeTokens <= 0) {
-                    token1 = new ImageButton(redLifeDrawable);
-                }
-            }
-        }
-
-        token1.setTransform(true);
-        token1.setPosition(620,280);
-        token1.setScale(0.28f);
-        stage.addActor(token1);
-        robotLife.put(player.getRobot(), token1);
-
-        token2.setTransform(true);
-        token2.setPosition(700,280);
-        token2.setScale(0.28f);
-        stage.addActor(token2);
-        robotLife.put(player.getRobot(), token2);
-
-        token3.setTransform(true);
-        token3.setPosition(780,280);
-        token3.setScale(0.28f);
-        stage.addActor(token3);
-        robotLife.put(player.getRobot(), token3);
+        // Token i is green while the robot has more than i life tokens
+        for (int i = 0; i < lifeTokenButtons.length; i++)
+            lifeTokenButtons[i].getStyle().imageUp = lifeTokens > i ? greenLifeDrawable : redLifeDrawable;
+        shownLifeTokens = lifeTokens;
     }
 
     @Override
     public void populateLabels() {
-        playerNameLabel = createLabel("Player name: " + player.getName());
-        playerNameLabel.setPosition(610, 700);;
+        playerNameLabel.setText("Player name: " + player.getName());
     }
 
     @Override
     public void addToFeed(String message) {
-        int previousMessageyPos;
-        if (feed.size() == 0)
-            previousMessageyPos = 700;
-        else {
-            Message previousMessage = feed.get(feed.size() - 1);
-            previousMessageyPos = previousMessage.getyPos();
-            for (Message m : feed) {
-                int newPos = m.getyPos() - 20;
-                m.setyPos(newPos);
-            }
+        feed.add(message);
+        // Keep showing the same messages while scrolled back
+        if (feedOffset > 0)
+            feedOffset = Math.min(feedOffset + 1, maxFeedOffset());
+        feedChanged = true;
+    }
 
+    @Override
+    public void printFeed() {
+        for (int i = 0; i < FEED_LINES; i++) {
+            String message = feed.get(feedOffset + i);
+            feedLabels[i].setText(message == null ? "" : message);
         }
-        Message fullMessage = new Message(message, previousMessageyPos);
-        feed.add(fullMessage);
+        feedChanged = false;
     }
 
     @Override
-    public void printFeed() {
-        for (Message message : feed)
-            stage.addActor(message.getLabel());
+    public void scrollFeed(int lines) {
+        int offset = Math.max(0, Math.min(feedOffset + lines, maxFeedOffset()));
+        if (offset != feedOffset) {
+            feedOffset = offset;
+            feedChanged = true;
+        }
+    }
+
+    private int maxFeedOffset() {
+        return Math.max(0, feed.getSize() - FEED_LINES);
+    }
+
+    @Override
+    public Feed getFeed() {
+        return feed;
+    }
+
+    @Override
+    public void exportFeed(String name) {
+        try (Writer writer = new FileWriter(name + ".txt")) {
+            feed.export(writer);
+            System.out.println("Feed written to " + name + ".txt");
+        } catch (IOException e) {
+            System.out.println("Could not write feed: " + e.getMessage());
+        }
     }
 
     @Override
     public Label createLabel(String text) {
-        BitmapFont font = new BitmapFont();
-        Label.LabelStyle style = new Label.LabelStyle();
-        style.font = font;
-        return new Label(text, style);
+        return new Label(text, assets.getLabelStyle(Color.WHITE));
     }
 
     @Override
@@ -301,15 +349,17 @@ public class Hud implements IHud {
         if (!gameScreen.getBoard().getPlayingOnline() && size > 1) {
             gameScreen.updateRobotRegisterWithSelectedCards(player);
             addToFeed(player.getName() + "'s robotregisters locked in!");
-            for (int i = 0; i < size; i++) {
-                if (player != gameScreen.getBoard().getPlayers().get(size - 1) && gameScreen.getBoard().getPlayers().get(i) == player) {
-                    gameScreen.getBoard().setActivePlayer(gameScreen.getBoard().getPlayers().get(i + 1));
+            // The next player who picks cards from the screen. Bots have programmed their robots already
+            ArrayList<AbstractPlayer> players = gameScreen.getBoard().getPlayers();
+            AbstractPlayer next = players.get(0);
+            for (int i = players.indexOf(player) + 1; i < size; i++) {
+                if (!(players.get(i) instanceof BotPlayer)) {
+                    next = players.get(i);
                     break;
-                } else {
-                    gameScreen.getBoard().setActivePlayer(gameScreen.getBoard().getPlayers().get(0));
                 }
             }
-            gameScreen.getBoard().programCardDeck.addToDeck(playerHand);
+            gameScreen.getBoard().setActivePlayer(next);
+            gameScreen.getBoard().getProgramCardDeck().addToDeck(playerHand);
             playerHand.clear();
             refreshStage();
             update();
@@ -337,12 +387,12 @@ public class Hud implements IHud {
     public void toggleReady() {
         if (player.getReady()) {
             // Player is not ready
-            readySprite = readyButtonSprites.findRegion("ready");
+            readySprite = sprites.findRegion("ready");
             player.setReady(false);
             addToFeed("Cards unarmed");
         } else {
             // Player is ready to proceed
-            readySprite = readyButtonSprites.findRegion("readyGo");
+            readySprite = sprites.findRegion("readyGo");
             player.setReady(true);
             addToFeed("Cards armed");
             addToFeed(" ");
@@ -354,7 +404,7 @@ public class Hud implements IHud {
     public void togglePowerDown() {
         if (powerDownState) {
             // Power down is deselected
-            powerDownSprite = powerDownSprites.findRegion("pdOff");
+            powerDownSprite = sprites.findRegion("pdOff");
             powerDownState = true;
             for (int i = 0; i < selectedCards.getSize(); i++) {
                 if (selectedCards.getCard(i).cardValue == CardValue.PD)
@@ -362,7 +412,7 @@ public class Hud implements IHud {
             }
         } else {
             // Power down is selected
-            readySprite = readyButtonSprites.findRegion("readyGo");
+            readySprite = sprites.findRegion("readyGo");
             powerDownState = false;
             //CardDeck emptyDeck = new CardDeck();
             resetSelectedCards();
@@ -383,7 +433,7 @@ public class Hud implements IHud {
 
     @Override
     public void setUpReadyButton(TextureRegion readySprite) {
-        readyDrawable = new TextureRegionDrawable(createReadySprite());
+        readyDrawable = new TextureRegionDrawable(readySprite);
         readyButton = new ImageButton(readyDrawable);
         readyButton.setTransform(true);
         readyButton.setScale(0.5f);
@@ -393,23 +443,24 @@ public class Hud implements IHud {
     @Override
     public TextureRegion createReadySprite() {
         if (player.getReady())
-            return readyButtonSprites.findRegion("readyGo");
+            return sprites.findRegion("readyGo");
         else
-            return readyButtonSprites.findRegion("ready");
+            return sprites.findRegion("ready");
     }
 
     @Override
     public void setUpPowerDownButton(TextureRegion powerDownSprite) {
-        if (powerDownState)
-            powerDownDrawable = new TextureRegionDrawable(powerDownSprites.findRegion("pdOn"));
-        else
-            powerDownDrawable = new TextureRegionDrawable(powerDownSprites.findRegion("pdOff"));
+        powerDownDrawable = powerDownDrawable(powerDownState);
         powerDownButton = new ImageButton(powerDownDrawable);
         powerDownButton.setTransform(true);
         powerDownButton.setScale(0.3f);
         powerDownButton.setName("Power down");
     }
 
+    private Drawable powerDownDrawable(boolean poweredDown) {
+        return new TextureRegionDrawable(sprites.findRegion(poweredDown ? "pdOn" : "pdOff"));
+    }
+
     @Override
     public void convertCardToDrawable(Card card) {
         if (card.getCardValue().equals(CardValue.F1)) {
@@ -503,9 +554,9 @@ public class Hud implements IHud {
 
     @Override
     public void refreshStage() {
-        stage.clear();
-        handTable = new Table();
-        handTable.setPosition(480,140);
+        // The hand is rebuilt by the next update, the other widgets are kept
+        handTable.clearChildren();
+        buttonCards.clear();
     }
 
     @Override
@@ -28,16 +28,33 @@ public interface IHud {
     void populateLabels();
 
     /**
-     *
-     * @param message
+     * Adds a message to the top of the feed.
+     * @param message the message
      */
     void addToFeed(String message);
 
     /**
-     *
+     * Shows the visible part of the feed in the feed labels.
      */
     void printFeed();
 
+    /**
+     * Scrolls the feed. The newest messages are shown when the feed is not scrolled.
+     * @param lines number of lines to scroll back in time, negative to scroll forward
+     */
+    void scrollFeed(int lines);
+
+    /**
+     * @return every message of the feed that is kept, for exporting the history
+     */
+    Feed getFeed();
+
+    /**
+     * Writes the messages the feed holds to a text file with the given name.
+     * @param name the file name, without extension
+     */
+    void exportFeed(String name);
+
     /**
      *
      */
@@ -0,0 +1,75 @@
+package inf112.skeleton.app.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import inf112.skeleton.app.RoboRally;
+
+import java.util.function.Supplier;
+
+/**
+ * A screen showing a progress bar while the queued assets are loaded. When everything is
+ * loaded, the game moves on to the next screen.
+ */
+public class LoadingScreen extends ScreenAdapter {
+    private final RoboRally game;
+    private final Assets assets;
+    // Made when loading is done, since the next screen uses the assets
+    private final Supplier<Screen> nextScreen;
+
+    private final Viewport viewport = new FitViewport(1280, 720);
+    private ShapeRenderer shapes;
+
+    public LoadingScreen(RoboRally game, Supplier<Screen> nextScreen) {
+        this.game = game;
+        this.assets = game.getAssets();
+        this.nextScreen = nextScreen;
+    }
+
+    @Override
+    public void show() {
+        shapes = new ShapeRenderer();
+    }
+
+    @Override
+    public void render(float delta) {
+        if (assets.update()) {
+            game.setScreen(nextScreen.get());
+            return;
+        }
+
+        Gdx.gl.glClearColor(0f, 0f, 0f, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        viewport.apply();
+        shapes.setProjectionMatrix(viewport.getCamera().combined);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(Color.DARK_GRAY);
+        shapes.rect(290, 340, 700, 40);
+        shapes.setColor(Color.GOLD);
+        shapes.rect(290, 340, 700 * assets.getProgress(), 40);
+        shapes.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void hide() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        if (shapes != null) {
+            shapes.dispose();
+            shapes = null;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
@@ -22,6 +21,7 @@ import inf112.skeleton.app.Location;
 import inf112.skeleton.app.Map;
 import inf112.skeleton.app.RoboRally;
 import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.BotPlayer;
 import inf112.skeleton.app.player.Player;
 import inf112.skeleton.app.player.TestPlayer;
 
@@ -49,6 +49,7 @@ public class MainMenuScreen extends ScreenAdapter {
     private Slider mapSelectSlider;
     private CheckBox setOnline;
     private CheckBox setHost;
+    private CheckBox setBots;
 
     // Labels
     private Label playersLabel;
@@ -68,7 +69,11 @@ public class MainMenuScreen extends ScreenAdapter {
     private Board board;
     private boolean playingOnline;
     private boolean hosting;
+    // Every player but the first is a bot in offline games
+    private boolean playingWithBots;
     int playerId;
+    // Seed of the program card deck in an online game
+    private long gameSeed;
 
     public MainMenuScreen(RoboRally game, AssetManager assetManager) {
         this.assetManager = assetManager;
@@ -101,16 +106,17 @@ public class MainMenuScreen extends ScreenAdapter {
            public void clicked(InputEvent event, float x, float y) {
                players.add(new TestPlayer(new Location(2, 0), 1));
                board = new Board(players, null);
-               game.setScreen(new GameScreen(game, board));
+               startGame();
            }
         });
 
         // Initiating labels
-        playersLabel = new Label("Number of players: " + String.format("%01d", nrOfPlayers), new Label.LabelStyle(new BitmapFont(), Color.GOLD));
-        mapLabel = new Label("Map: " + String.format("%01d", selectedMapInt), new Label.LabelStyle(new BitmapFont(), Color.GREEN));
-        modeLabel = new Label("Mode: " + showMode(), new Label.LabelStyle(new BitmapFont(), Color.CYAN));
-        statusLabel = new Label("Network status: " + showStatus(), new Label.LabelStyle(new BitmapFont(), Color.CORAL));
-        helpLabel = new Label("Use the settings to select options for the game. You can select how many players, which map and online settings.", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        Assets assets = game.getAssets();
+        playersLabel = new Label("Number of players: " + String.format("%01d", nrOfPlayers), assets.getLabelStyle(Color.GOLD));
+        mapLabel = new Label("Map: " + String.format("%01d", selectedMapInt), assets.getLabelStyle(Color.GREEN));
+        modeLabel = new Label("Mode: " + showMode(), assets.getLabelStyle(Color.CYAN));
+        statusLabel = new Label("Network status: " + showStatus(), assets.getLabelStyle(Color.CORAL));
+        helpLabel = new Label("Use the settings to select options for the game. You can select how many players, which map and online settings.", assets.getLabelStyle(Color.WHITE));
 
         // Initiating sliders
         playerCountSlider = new Slider(1, 4, 1, false, skin);
@@ -149,6 +155,15 @@ public class MainMenuScreen extends ScreenAdapter {
             }
         });
 
+        setBots = new CheckBox("Bots", skin);
+        setBots.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                playingWithBots = !playingWithBots;
+                modeLabel.setText("Mode: " + showMode());
+            }
+        });
+
         // Create label table
         labelTable = new Table();
         labelTable.setFillParent(true);
@@ -180,25 +195,32 @@ public class MainMenuScreen extends ScreenAdapter {
                         }
                         playingOnline = true;
                         playerId = 1;
+                        gameSeed = RoboreliableServer.getGameSeed();
                     }
                     else {
-                        try { joinOnlineGame();
+                        try {
+                            joinOnlineGame();
+                            playerId = RoboreliableClient.getPlayerId();
+                            System.out.println("You are player " + playerId);
+                            nrOfPlayers = RoboreliableClient.getNumberOfPlayers();
+                            gameSeed = RoboreliableClient.getGameSeed();
                         } catch (IOException e) {
-                            e.printStackTrace();
+                            // Stay in the menu, so the player can try again
+                            System.out.println(e);
+                            RoboreliableClient.disconnect();
+                            statusLabel.setText("Network status: could not join (" + e.getMessage() + ")");
+                            return;
                         }
-                        playerId = RoboreliableClient.getPlayerId();
-                        System.out.println("You are player " + playerId);
-                        nrOfPlayers = RoboreliableClient.getNumberOfPlayers();
                         playingOnline = true;
                     }
                     addPlayers();
-                    board = new Board(players, selectedMap, playingOnline, playerId);
+                    board = new Board(players, selectedMap, playingOnline, playerId, gameSeed);
                 }
                 else {
                     addPlayers();
                     board = new Board(players, selectedMap);
                 }
-                game.setScreen(new GameScreen(game, board));
+                startGame();
             }
         });
 
@@ -251,9 +273,7 @@ public class MainMenuScreen extends ScreenAdapter {
         helpTable.setPosition(0,-200);
         helpTable.add(helpLabel).padBottom(200);;
 
-        BitmapFont font = new BitmapFont();
-        Label.LabelStyle style = new Label.LabelStyle();
-        style.font = font;
+        Label.LabelStyle style = assets.getLabelStyle(Color.WHITE);
 
         // Adding player count slider
         selectTable.add(new Label("Player count:", style));
@@ -267,6 +287,10 @@ public class MainMenuScreen extends ScreenAdapter {
         selectTable.add(mapSelectSlider).padBottom(20);
         selectTable.row();
 
+        // Playing against bots
+        selectTable.add(setBots).padBottom(20);
+        selectTable.row();
+
         addButton(selectTable, "Go back").addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
@@ -308,6 +332,8 @@ public class MainMenuScreen extends ScreenAdapter {
         stage.draw();
         setPlayerCount();
         setSelectedMap();
+        // Loads the selected map in the background while the player is in the menu
+        game.getAssets().update();
     }
 
     @Override
@@ -350,9 +376,25 @@ public class MainMenuScreen extends ScreenAdapter {
      * @return
      */
     private void setSelectedMap() {
-        selectedMapInt = (int) mapSelectSlider.getVisualValue();
+        int mapInt = (int) mapSelectSlider.getVisualValue();
+        if (mapInt == selectedMapInt)
+            return;
+        selectedMapInt = mapInt;
         selectedMap = convertIntToMap(selectedMapInt);
         mapLabel.setText("Map: " + selectedMap.getName());
+        game.getAssets().preloadMap(selectedMap);
+    }
+
+    /**
+     * Shows the game, once the map of the board has been loaded.
+     */
+    private void startGame() {
+        if (game.getAssets().isMapLoaded(board.getSelectedMap()))
+            game.setScreen(new GameScreen(game, board));
+        else {
+            game.getAssets().preloadMap(board.getSelectedMap());
+            game.setScreen(new LoadingScreen(game, () -> new GameScreen(game, board)));
+        }
     }
 
     /**
@@ -375,6 +417,7 @@ public class MainMenuScreen extends ScreenAdapter {
     private String showMode() {
         String mode;
         if (playingOnline) { mode = "Online";}
+        else if (playingWithBots) { mode = "Offline against bots";}
         else { mode = "Offline";}
         return mode;
     }
@@ -413,12 +456,15 @@ public class MainMenuScreen extends ScreenAdapter {
      * Initializes a specified amount of players and adds them to a list of players.
      */
     public void addPlayers() {
-        // adds the host player
-        players.add(new Player(new Location(2,0), 1, true));
+        // adds the host player. When playing in a room on a dedicated server, every player is a guest
+        players.add(new Player(new Location(2,0), 1, hosting));
         // adds the guest players
         int x = 2;
         for (int i = 2; i <= nrOfPlayers; i++) {
-            players.add(new Player(new Location(x + 3, 0), i, false)); // Change ´new Player´ with ´new TestPlayer´
+            if (playingWithBots && !playingOnline)
+                players.add(new BotPlayer(new Location(x + 3, 0), i));
+            else
+                players.add(new Player(new Location(x + 3, 0), i, false)); // Change ´new Player´ with ´new TestPlayer´
             x+=3;
         }
     }
@@ -0,0 +1,96 @@
+package inf112.skeleton.app.screens;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Matrix4;
+import inf112.skeleton.app.game.FrameMetrics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Shows the frame metrics in the corner of the screen, and exports them to files.
+ */
+public class MetricsOverlay {
+    // The text is rebuilt this often, so reading it does not cost a frame of its own
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final FrameMetrics metrics;
+    private final BitmapFont font;
+    private final Matrix4 projection = new Matrix4();
+    private final StringBuilder text = new StringBuilder();
+    private long lastRefresh;
+    private boolean visible = false;
+
+    public MetricsOverlay(FrameMetrics metrics, BitmapFont font) {
+        this.metrics = metrics;
+        this.font = font;
+    }
+
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Draws the metrics, if the overlay is visible.
+     * @param batch the batch to draw with, which must not be drawing
+     * @param width width of the screen in pixels
+     * @param height height of the screen in pixels
+     */
+    public void draw(SpriteBatch batch, int width, int height) {
+        if (!visible)
+            return;
+        long now = System.nanoTime();
+        if (now - lastRefresh > REFRESH_NANOS) {
+            refreshText();
+            lastRefresh = now;
+        }
+        projection.setToOrtho2D(0, 0, width, height);
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        Color color = font.getColor().cpy();
+        font.setColor(Color.YELLOW);
+        font.draw(batch, text, 10, height - 10);
+        font.setColor(color);
+        batch.end();
+    }
+
+    private void refreshText() {
+        text.setLength(0);
+        text.append("frame ").append(millis(metrics.getLastFrameNanos()))
+                .append(" ms  avg ").append(millis(metrics.getAverageFrameNanos()))
+                .append("  max ").append(millis(metrics.getMaxFrameNanos())).append('\n');
+        text.append("p50 ").append(metrics.getFramePercentileMillis(50))
+                .append(" ms  p95 ").append(metrics.getFramePercentileMillis(95))
+                .append(" ms  p99 ").append(metrics.getFramePercentileMillis(99)).append(" ms\n");
+        long allocated = metrics.getLastFrameAllocatedBytes();
+        text.append("allocated ").append(allocated < 0 ? "n/a" : allocated / 1024 + " KB").append(" per frame\n");
+        for (FrameMetrics.Phase phase : FrameMetrics.Phase.values())
+            text.append(phase.name().toLowerCase()).append(' ').append(millis(metrics.getLastNanos(phase)))
+                    .append(" ms  max ").append(millis(metrics.getMaxNanos(phase))).append('\n');
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Writes the metrics to a CSV file and a JSON file with the given name.
+     * @param name the file name, without extension
+     */
+    public void export(String name) {
+        try (Writer csv = new FileWriter(name + ".csv"); Writer json = new FileWriter(name + ".json")) {
+            metrics.exportCsv(csv);
+            metrics.exportJson(json);
+            System.out.println("Metrics written to " + name + ".csv and " + name + ".json");
+        } catch (IOException e) {
+            System.out.println("Could not write metrics: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package main;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Packs the art of the robots and the HUD into a single texture atlas, so the game binds one
+ * texture for all of it. Run it again whenever one of the source images changes.
+ * <p>
+ * Usage: AtlasPacker [assets directory]
+ */
+public class AtlasPacker {
+    public static final String ATLAS_NAME = "gameAtlas";
+
+    // The atlases that are packed together
+    private static final String[] SOURCE_ATLASES = {
+            "cardAtlas.atlas", "readyButtonAtlas.atlas", "lifeTokenAtlas.atlas", "powerDownAtlas.atlas"
+    };
+    // The robot sheet has one 300x300 frame for each of these regions
+    private static final String ROBOT_SHEET = "player.png";
+    private static final String[] ROBOT_REGIONS = {"robot", "robotDied", "robotWon"};
+    private static final int ROBOT_SIZE = 300;
+
+    private static final int MAX_WIDTH = 2048;
+    private static final int PADDING = 2;
+
+    public static void main(String[] args) throws IOException {
+        File assets = new File(args.length > 0 ? args[0] : "assets");
+        List<Region> regions = new ArrayList<>();
+
+        HashMap<File, BufferedImage> pages = new HashMap<>();
+        for (String atlas : SOURCE_ATLASES) {
+            FileHandle packFile = new FileHandle(new File(assets, atlas));
+            TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(packFile, packFile.parent(), false);
+            for (TextureAtlas.TextureAtlasData.Region region : data.getRegions()) {
+                if (region.rotate)
+                    throw new IOException("Rotated region " + region.name + " in " + atlas + " is not supported");
+                File pageFile = region.page.textureFile.file();
+                BufferedImage page = pages.get(pageFile);
+                if (page == null) {
+                    page = ImageIO.read(pageFile);
+                    pages.put(pageFile, page);
+                }
+                regions.add(new Region(region.name, region.index,
+                        page.getSubimage(region.left, region.top, region.width, region.height)));
+            }
+        }
+        BufferedImage robots = ImageIO.read(new File(assets, ROBOT_SHEET));
+        for (int i = 0; i < ROBOT_REGIONS.length; i++)
+            regions.add(new Region(ROBOT_REGIONS[i], -1, robots.getSubimage(i * ROBOT_SIZE, 0, ROBOT_SIZE, ROBOT_SIZE)));
+
+        BufferedImage packed = pack(regions);
+        ImageIO.write(packed, "png", new File(assets, ATLAS_NAME + ".png"));
+        writeAtlas(new File(assets, ATLAS_NAME + ".atlas"), regions);
+        System.out.println("Packed " + regions.size() + " regions into " + ATLAS_NAME
+                + " (" + packed.getWidth() + "x" + packed.getHeight() + ")");
+    }
+
+    /**
+     * Places the regions in rows, tallest first, and draws them on one image.
+     */
+    private static BufferedImage pack(List<Region> regions) {
+        List<Region> byHeight = new ArrayList<>(regions);
+        byHeight.sort(Comparator.comparingInt((Region r) -> r.image.getHeight()).reversed());
+
+        int x = PADDING, y = PADDING, rowHeight = 0, width = 0;
+        for (Region region : byHeight) {
+            int w = region.image.getWidth(), h = region.image.getHeight();
+            if (x + w + PADDING > MAX_WIDTH) {
+                x = PADDING;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            region.x = x;
+            region.y = y;
+            x += w + PADDING;
+            rowHeight = Math.max(rowHeight, h);
+            width = Math.max(width, x);
+        }
+        int height = y + rowHeight + PADDING;
+
+        BufferedImage packed = new BufferedImage(powerOfTwo(width), powerOfTwo(height), BufferedImage.TYPE_INT_ARGB);
+        for (Region region : regions)
+            packed.createGraphics().drawImage(region.image, region.x, region.y, null);
+        return packed;
+    }
+
+    private static int powerOfTwo(int size) {
+        int power = 1;
+        while (power < size)
+            power *= 2;
+        return power;
+    }
+
+    private static void writeAtlas(File file, List<Region> regions) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.print("\n" + ATLAS_NAME + ".png\n");
+            writer.print("format: RGBA8888\nfilter: Nearest,Nearest\nrepeat: none\n");
+            for (Region region : regions) {
+                int w = region.image.getWidth(), h = region.image.getHeight();
+                writer.print(region.name + "\n");
+                writer.print("  rotate: false\n");
+                writer.print("  xy: " + region.x + ", " + region.y + "\n");
+                writer.print("  size: " + w + ", " + h + "\n");
+                writer.print("  orig: " + w + ", " + h + "\n");
+                writer.print("  offset: 0, 0\n");
+                writer.print("  index: " + region.index + "\n");
+            }
+        }
+    }
+
+    private static class Region {
+        private final String name;
+        private final int index;
+        private final BufferedImage image;
+        private int x;
+        private int y;
+
+        Region(String name, int index, BufferedImage image) {
+            this.name = name;
+            this.index = index;
+            this.image = image;
+        }
+    }
+}
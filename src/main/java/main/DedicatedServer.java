@@ -0,0 +1,24 @@
+package main;
+
+import Network.GameServer;
+
+import java.io.IOException;
+
+/**
+ * Runs a server that hosts many online matches at once, without a game window.
+ * Players joining the server are put in the first open room, and a new room is made when
+ * all rooms are full.
+ *
+ * Usage: DedicatedServer [port] [players per room]
+ */
+public class DedicatedServer {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        int playersPerRoom = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        GameServer server = new GameServer(port, playersPerRoom);
+        Thread thread = server.start();
+        System.out.println("Serving rooms of " + playersPerRoom + " players on port " + server.getPort());
+        thread.join();
+    }
+}
@@ -0,0 +1,47 @@
+package main;
+
+import inf112.skeleton.app.game.CompiledMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * Compiles every TMX map in the assets folder to the compiled map format, which the game and
+ * the servers load without parsing XML. Run it again whenever a map is changed in Tiled.
+ * The game loads compiled maps without looking at the TMX files, so until then it plays the
+ * old map, and the tests fail. Maps whose compiled map is up to date are skipped.
+ * <p>
+ * Usage: MapCompiler [assets directory]
+ */
+public class MapCompiler {
+    public static void main(String[] args) throws IOException {
+        File assets = new File(args.length > 0 ? args[0] : "assets");
+        File[] maps = assets.listFiles((dir, name) -> name.endsWith(".tmx"));
+        if (maps == null)
+            throw new IOException("No such directory: " + assets);
+
+        for (File tmx : maps) {
+            byte[] source = Files.readAllBytes(tmx.toPath());
+            File output = new File(assets, CompiledMap.compiledName(tmx.getName()));
+            if (isUpToDate(output, source)) {
+                System.out.println(output.getName() + " is up to date");
+                continue;
+            }
+            byte[] compiled = CompiledMap.compile(source);
+            Files.write(output.toPath(), compiled);
+            System.out.println("Compiled " + tmx.getName() + " to " + output.getName() + " (" + compiled.length + " bytes)");
+        }
+    }
+
+    private static boolean isUpToDate(File compiled, byte[] tmx) {
+        try {
+            return compiled.exists()
+                    && CompiledMap.readChecksum(ByteBuffer.wrap(Files.readAllBytes(compiled.toPath()))) == CompiledMap.checksum(tmx);
+        } catch (IOException e) {
+            // An unreadable or older version of the format is compiled again
+            return false;
+        }
+    }
+}
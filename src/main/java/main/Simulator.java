@@ -0,0 +1,66 @@
+package main;
+
+import inf112.skeleton.app.Map;
+import inf112.skeleton.app.game.GameLog;
+import inf112.skeleton.app.game.GameRandom;
+import inf112.skeleton.app.game.GameSimulator;
+import inf112.skeleton.app.game.MapData;
+import inf112.skeleton.app.game.SimulationReport;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many games without rendering, spread over all cores, and prints statistics about them.
+ * Used for tuning the maps. Every game gets its own seed from the seed of the run, so a run
+ * with the same seed plays the same games, on any number of threads.
+ * <p>
+ * Bots take the first seats, and the other players play the first cards they are dealt.
+ * <p>
+ * Usage: Simulator &lt;map number&gt; &lt;number of players&gt; &lt;number of games&gt; [threads] [seed] [bots]
+ */
+public class Simulator {
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length < 3) {
+            System.out.println("Usage: Simulator <map number> <number of players> <number of games> [threads] [seed] [bots]");
+            return;
+        }
+        int mapNr = Integer.parseInt(args[0]);
+        int numberOfPlayers = Integer.parseInt(args[1]);
+        int numberOfGames = Integer.parseInt(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : new GameRandom().getSeed();
+        int numberOfBots = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        if (numberOfPlayers < 1 || numberOfPlayers > 4)
+            throw new IllegalArgumentException("Number of players must be between 1 and 4");
+        if (numberOfBots < 0 || numberOfBots > numberOfPlayers)
+            throw new IllegalArgumentException("Number of bots must be between 0 and the number of players");
+
+        MapData map = MapData.load(new Map("Map " + mapNr, mapNr).getFileName());
+        GameSimulator simulator = new GameSimulator(map, numberOfPlayers, numberOfBots);
+        int numberOfFlags = map.createFlags().size();
+
+        System.out.println("Simulating " + numberOfGames + " games on map " + mapNr + " with "
+                + numberOfPlayers + " players (" + numberOfBots + " bots) on " + threads + " threads with seed " + seed + "...");
+
+        // The game prints a lot of events to the console, which would make up most of the run time
+        GameLog.setQuiet(true);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        SimulationReport report;
+        try {
+            report = pool.submit(() -> IntStream.range(0, numberOfGames)
+                    .parallel()
+                    .mapToObj(i -> simulator.playGame(GameRandom.gameSeed(seed, i)))
+                    .collect(() -> new SimulationReport(numberOfPlayers, numberOfFlags),
+                            SimulationReport::add, SimulationReport::merge))
+                    .get();
+        } finally {
+            GameLog.setQuiet(false);
+            pool.shutdown();
+        }
+        report.print(System.out, System.nanoTime() - start);
+    }
+}
@@ -1,8 +1,17 @@
 package inf112.skeleton.app;
 
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import inf112.skeleton.app.screens.Assets;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * Testing for the Assets class.
  */
@@ -29,4 +38,19 @@ public class AssetsTest {
             throw new Exception("AssetManager not loaded properly.");
         }
     }
+
+    @Test
+    public void gameAtlasHasEveryRegionOnOnePageTest() {
+        FileHandle packFile = new FileHandle(new File(Assets.gameATLAS.fileName));
+        TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(packFile, packFile.parent(), false);
+
+        HashSet<String> names = new HashSet<>();
+        for (TextureAtlas.TextureAtlasData.Region region : data.getRegions())
+            names.add(region.name);
+
+        assertEquals(1, data.getPages().size);
+        assertTrue(names.containsAll(List.of("leftTurn", "rightTurn", "uTurn", "backUp", "moveOnce", "moveTwice",
+                "moveThrice", "ready", "readyGo", "lifeTokenGreen", "lifeTokenRed", "pdOn", "pdOff",
+                "robot", "robotDied", "robotWon")));
+    }
 }
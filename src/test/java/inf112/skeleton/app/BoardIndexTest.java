@@ -0,0 +1,69 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.game.BoardIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bitboard of holes, flags and robots.
+ */
+public class BoardIndexTest {
+    private BoardIndex index;
+
+    @BeforeEach
+    public void createIndex() {
+        index = new BoardIndex(12, 12);
+    }
+
+    @Test
+    public void holesAndFlagsTest() {
+        Flag flag = new Flag(1, new Location(4, 3));
+        index.addHole(new Location(11, 11));
+        index.addFlag(flag);
+
+        assertTrue(index.isHole(11, 11));
+        assertFalse(index.isHole(4, 3));
+        assertSame(flag, index.flagAt(4, 3));
+        assertNull(index.flagAt(11, 11));
+        assertFalse(index.isValidSpawn(11, 11));
+        assertTrue(index.isValidSpawn(4, 3));
+    }
+
+    @Test
+    public void outOfBoundsTest() {
+        assertFalse(index.inBounds(-1, 0));
+        assertFalse(index.inBounds(0, 12));
+        assertFalse(index.isHole(12, 0));
+        assertFalse(index.isValidSpawn(-1, -1));
+    }
+
+    @Test
+    public void robotsSharingCellTest() {
+        index.addRobot(new Location(2, 0));
+        index.addRobot(new Location(2, 0));
+        index.moveRobot(new Location(2, 0), new Location(2, 1));
+
+        assertTrue(index.hasRobot(2, 0));
+        assertTrue(index.hasRobot(2, 1));
+
+        index.moveRobot(new Location(2, 0), new Location(2, 2));
+        assertFalse(index.hasRobot(2, 0));
+        assertTrue(index.isValidSpawn(2, 0));
+    }
+
+    @Test
+    public void largerBoardTest() {
+        BoardIndex large = new BoardIndex(100, 100);
+        large.addHole(new Location(99, 99));
+        large.addHole(new Location(63, 0));
+        large.addHole(new Location(64, 0));
+
+        assertTrue(large.isHole(99, 99));
+        assertTrue(large.isHole(63, 0));
+        assertTrue(large.isHole(64, 0));
+        assertFalse(large.isHole(65, 0));
+    }
+}
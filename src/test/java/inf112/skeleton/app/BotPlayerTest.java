@@ -0,0 +1,99 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.CardCatalog;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Hole;
+import inf112.skeleton.app.game.GameSimulator;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.MapData;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.BotPlayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing for the player that programs its own robot.
+ */
+public class BotPlayerTest {
+    private BotPlayer bot;
+    private GameState state;
+
+    @BeforeEach
+    public void createGame() {
+        ArrayList<AbstractPlayer> players = new ArrayList<>();
+        bot = new BotPlayer(new Location(0, 0), 1);
+        players.add(bot);
+        state = new GameState(players, 12, 12);
+    }
+
+    private void deal(CardValue... values) {
+        bot.getHand().clear();
+        // Each card of a value is the next card of the catalog with that value, so all cards are different
+        for (int i = 0; i < values.length; i++) {
+            int n = 0;
+            for (int j = 0; j < i; j++) {
+                if (values[j] == values[i])
+                    n++;
+            }
+            bot.addToHand(CardCatalog.OFFICIAL.getNthWithValue(values[i], n));
+        }
+    }
+
+    @Test
+    public void programReachesFlagAndAvoidsHoleTest() {
+        state.setFlags(List.of(new Flag(1, new Location(0, 5))));
+        state.addHole(new Hole(new Location(0, 1)));
+        deal(CardValue.F1, CardValue.F2, CardValue.F3, CardValue.RR, CardValue.RL, CardValue.UT, CardValue.B1);
+
+        bot.program(state);
+        RulesEngine engine = new RulesEngine(state);
+        while (!engine.registersAreEmpty() && !engine.checkIfWon()) {
+            engine.updatePhaseQueue();
+            engine.executePhase();
+            assertFalse(bot.getRobot().getIsDestroyed());
+        }
+
+        assertTrue(engine.checkIfWon());
+        assertEquals(2, bot.getHandSize());
+    }
+
+    @Test
+    public void programsWithSameValuesArePlayedOnceTest() {
+        deal(CardValue.F1, CardValue.F2, CardValue.F3, CardValue.RR, CardValue.RL);
+        bot.pickCards(state);
+        assertEquals(5 * 4 * 3 * 2, bot.getProgramsEvaluated());
+
+        deal(CardValue.F1, CardValue.F1, CardValue.F1, CardValue.F1, CardValue.F1, CardValue.F1);
+        bot.pickCards(state);
+        assertEquals(1, bot.getProgramsEvaluated());
+
+        // nine cards of nine values would be 9P5 = 15120 programs, repeated values make fewer
+        deal(CardValue.F1, CardValue.F2, CardValue.F3, CardValue.B1, CardValue.RR, CardValue.RL, CardValue.UT,
+                CardValue.F1, CardValue.RR);
+        bot.pickCards(state);
+        assertTrue(bot.getProgramsEvaluated() < 15120);
+        assertEquals(4, bot.getHandSize());
+    }
+
+    @Test
+    public void botProgramsWhenCardsAreDealtTest() {
+        new RulesEngine(state).startNewRound();
+
+        assertTrue(bot.getReady());
+        assertEquals(RulesEngine.REGISTER_SIZE, bot.getRobot().getRegister().getSize());
+        assertEquals(RulesEngine.HAND_SIZE - RulesEngine.REGISTER_SIZE, bot.getHandSize());
+    }
+
+    @Test
+    public void botsPlayWholeGamesTest() {
+        GameSimulator simulator = new GameSimulator(MapData.load("gameboard1.tmx"), 2, 2);
+        assertTrue(simulator.playGame(5).getRounds() >= 1);
+    }
+}
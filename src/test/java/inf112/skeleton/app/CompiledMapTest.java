@@ -0,0 +1,103 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Hole;
+import inf112.skeleton.app.game.CompiledMap;
+import inf112.skeleton.app.game.MapData;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing for the compiled map format.
+ */
+public class CompiledMapTest {
+
+    private byte[] readTmx() throws Exception {
+        return Files.readAllBytes(Paths.get("assets", "gameboard1.tmx"));
+    }
+
+    private List<String> describeFlags(ArrayList<Flag> flags) {
+        List<String> described = new ArrayList<>();
+        for (Flag flag : flags)
+            described.add(flag.getFlagNumber() + "@" + flag.getLocation());
+        return described;
+    }
+
+    private List<Location> holeLocations(ArrayList<Hole> holes) {
+        List<Location> locations = new ArrayList<>();
+        for (Hole hole : holes)
+            locations.add(hole.getLocation());
+        return locations;
+    }
+
+    @Test
+    public void compiledMapMatchesTmxTest() throws Exception {
+        byte[] tmx = readTmx();
+        MapData parsed = MapData.parse(new ByteArrayInputStream(tmx));
+        MapData compiled = CompiledMap.read(ByteBuffer.wrap(CompiledMap.compile(tmx)));
+
+        assertEquals(parsed.getWidth(), compiled.getWidth());
+        assertEquals(parsed.getHeight(), compiled.getHeight());
+        for (String layer : parsed.getLayerNames()) {
+            for (int x = 0; x < parsed.getWidth(); x++) {
+                for (int y = 0; y < parsed.getHeight(); y++)
+                    assertEquals(parsed.getTileId(layer, x, y), compiled.getTileId(layer, x, y));
+            }
+        }
+        assertEquals(describeFlags(parsed.createFlags()), describeFlags(compiled.createFlags()));
+        assertEquals(holeLocations(parsed.createHoles()), holeLocations(compiled.createHoles()));
+        assertEquals(parsed.createStartLocations(), compiled.createStartLocations());
+    }
+
+    @Test
+    public void flagsAndStartsAreInOrderTest() throws Exception {
+        MapData map = CompiledMap.read(ByteBuffer.wrap(CompiledMap.compile(readTmx())));
+
+        ArrayList<Flag> flags = map.createFlags();
+        for (int i = 0; i < flags.size(); i++)
+            assertEquals(i + 1, flags.get(i).getFlagNumber());
+        assertEquals(List.of(new Location(2, 0), new Location(5, 0), new Location(8, 0), new Location(11, 0)),
+                map.createStartLocations());
+    }
+
+    @Test
+    public void compiledMapKeepsTmxChecksumTest() throws Exception {
+        byte[] tmx = readTmx();
+        ByteBuffer compiled = ByteBuffer.wrap(CompiledMap.compile(tmx));
+
+        assertEquals(CompiledMap.checksum(tmx), CompiledMap.readChecksum(compiled));
+        tmx[tmx.length - 2] ^= 1;
+        assertNotEquals(CompiledMap.checksum(tmx), CompiledMap.readChecksum(compiled));
+    }
+
+    @Test
+    public void compiledMapsInAssetsAreUpToDateTest() throws Exception {
+        // The game does not check this when it loads a map, so main.MapCompiler must be run
+        // whenever a TMX file changes
+        for (int board = 1; board <= 4; board++) {
+            byte[] tmx = Files.readAllBytes(Paths.get("assets", "gameboard" + board + ".tmx"));
+            ByteBuffer compiled = ByteBuffer.wrap(Files.readAllBytes(Paths.get("assets", "gameboard" + board + ".rrmap")));
+            assertEquals(CompiledMap.checksum(tmx), CompiledMap.readChecksum(compiled), "gameboard" + board);
+        }
+    }
+
+    @Test
+    public void mapsAreLoadedOnceTest() {
+        assertSame(MapData.load("gameboard2.tmx"), MapData.load("gameboard2.tmx"));
+    }
+
+    @Test
+    public void sharedMapCanNotBeChangedTest() {
+        MapData map = MapData.load("gameboard2.tmx");
+        assertThrows(UnsupportedOperationException.class, () -> map.getLayerNames().remove(MapData.HOLE_LAYER));
+        assertTrue(map.hasLayer(MapData.HOLE_LAYER));
+    }
+}
@@ -63,4 +63,20 @@ public class DirectionTest {
 
         assertEquals(Direction.UP, robotDirection, "Initial direction not correct.");
     }
+
+    /**
+     * Checks turning several quarter turns at once, in both directions.
+     */
+    @Test
+    public void rotateQuarterTurnsTest() {
+        for (Direction direction : Direction.values()) {
+            assertEquals(direction, direction.rotate(4));
+            assertEquals(direction.opposite(), direction.rotate(2));
+            assertEquals(direction.opposite(), direction.rotate(-2));
+            assertEquals(Direction.rotateLeft(direction), direction.rotate(-1));
+            assertEquals(Direction.rotateLeft(direction), direction.rotate(3));
+            assertEquals(0, direction.getDx() + direction.opposite().getDx());
+            assertEquals(0, direction.getDy() + direction.opposite().getDy());
+        }
+    }
 }
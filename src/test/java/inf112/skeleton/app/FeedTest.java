@@ -0,0 +1,47 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.screens.Feed;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing for the event feed of the HUD.
+ */
+public class FeedTest {
+
+    @Test
+    public void newestMessageIsFirstTest() {
+        Feed feed = new Feed(10);
+        feed.add("first");
+        feed.add("second");
+
+        assertEquals("second", feed.get(0));
+        assertEquals("first", feed.get(1));
+        assertNull(feed.get(2));
+    }
+
+    @Test
+    public void fullFeedReplacesOldestMessageTest() {
+        Feed feed = new Feed(3);
+        for (int i = 1; i <= 5; i++)
+            feed.add("message " + i);
+
+        assertEquals(3, feed.getSize());
+        assertEquals(List.of("message 3", "message 4", "message 5"), feed.getHistory());
+    }
+
+    @Test
+    public void exportWritesHistoryOldestFirstTest() throws Exception {
+        Feed feed = new Feed(5);
+        feed.add("a");
+        feed.add("b");
+        StringWriter writer = new StringWriter();
+        feed.export(writer);
+
+        assertEquals("a" + System.lineSeparator() + "b" + System.lineSeparator(), writer.toString());
+    }
+}
@@ -0,0 +1,82 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.game.FrameMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing for the frame metrics.
+ */
+public class FrameMetricsTest {
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void phaseIsTimedInsideFrameTest() {
+        FrameMetrics metrics = new FrameMetrics();
+        metrics.beginFrame();
+        metrics.begin(FrameMetrics.Phase.MAP_RENDER);
+        sleep(5);
+        metrics.end(FrameMetrics.Phase.MAP_RENDER);
+        metrics.endFrame();
+
+        assertEquals(1, metrics.getFrames());
+        assertTrue(metrics.getLastNanos(FrameMetrics.Phase.MAP_RENDER) >= 5_000_000);
+        assertTrue(metrics.getLastFrameNanos() >= metrics.getLastNanos(FrameMetrics.Phase.MAP_RENDER));
+        assertEquals(0, metrics.getLastNanos(FrameMetrics.Phase.HUD_DRAW));
+    }
+
+    @Test
+    public void disabledMetricsMeasureNothingTest() {
+        FrameMetrics metrics = new FrameMetrics();
+        metrics.setEnabled(false);
+        metrics.beginFrame();
+        metrics.begin(FrameMetrics.Phase.GAME_LOOP);
+        metrics.end(FrameMetrics.Phase.GAME_LOOP);
+        metrics.endFrame();
+
+        assertEquals(0, metrics.getFrames());
+        assertEquals(0, metrics.getLastNanos(FrameMetrics.Phase.GAME_LOOP));
+    }
+
+    @Test
+    public void histogramGivesPercentilesTest() {
+        FrameMetrics metrics = new FrameMetrics();
+        for (int i = 0; i < 4; i++) {
+            metrics.beginFrame();
+            metrics.endFrame();
+        }
+        metrics.beginFrame();
+        sleep(20);
+        metrics.endFrame();
+
+        assertEquals(1, metrics.getFramePercentileMillis(50));
+        assertTrue(metrics.getFramePercentileMillis(100) > 20);
+    }
+
+    @Test
+    public void exportWritesEveryPhaseTest() throws Exception {
+        FrameMetrics metrics = new FrameMetrics();
+        metrics.beginFrame();
+        metrics.endFrame();
+        StringWriter csv = new StringWriter();
+        StringWriter json = new StringWriter();
+        metrics.exportCsv(csv);
+        metrics.exportJson(json);
+
+        for (FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            assertTrue(csv.toString().contains(phase.name() + ","));
+            assertTrue(json.toString().contains("\"" + phase.name() + "\""));
+        }
+        assertTrue(json.toString().contains("\"frames\": 1"));
+    }
+}
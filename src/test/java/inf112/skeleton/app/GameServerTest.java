@@ -0,0 +1,181 @@
+package inf112.skeleton.app;
+
+import Network.Frames;
+import Network.GameServer;
+import Network.PlayerUpdate;
+import Network.Protocol;
+import Network.RoboreliableClient;
+import Network.RoomInfo;
+import inf112.skeleton.app.player.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for a server hosting several rooms, using clients on localhost.
+ */
+public class GameServerTest {
+    private GameServer server;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new GameServer(0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        for (Socket socket : sockets)
+            socket.close();
+        server.stop();
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("127.0.0.1", server.getPort());
+        sockets.add(socket);
+        return socket;
+    }
+
+    private void send(Socket socket, byte[] frame) throws IOException {
+        Frames.write(new DataOutputStream(socket.getOutputStream()), frame);
+    }
+
+    private byte[] read(Socket socket) throws IOException {
+        return Frames.read(new DataInputStream(socket.getInputStream()));
+    }
+
+    /**
+     * Joins any room, and waits until the server has put the client in a room.
+     */
+    private Socket join(int expectedPlayerId) throws IOException {
+        Socket socket = connect();
+        send(socket, Protocol.encodeInt(Protocol.JOIN_ROOM, GameServer.ANY_ROOM));
+        assertEquals(expectedPlayerId, Protocol.decodeInt(Protocol.PLAYER_ID, read(socket)));
+        return socket;
+    }
+
+    @Test
+    public void roomDirectoryTest() throws IOException {
+        Socket browser = connect();
+        send(browser, Protocol.encodeSignal(Protocol.LIST_ROOMS));
+        assertTrue(Protocol.decodeRoomList(read(browser)).isEmpty());
+
+        join(1);
+        join(2);
+        join(1);
+        send(browser, Protocol.encodeSignal(Protocol.LIST_ROOMS));
+        List<RoomInfo> rooms = Protocol.decodeRoomList(read(browser));
+
+        assertEquals(2, rooms.size());
+        assertTrue(rooms.get(0).isStarted());
+        assertEquals(2, rooms.get(0).getPlayers());
+        assertFalse(rooms.get(1).isStarted());
+        assertEquals(1, rooms.get(1).getPlayers());
+    }
+
+    @Test
+    public void roomsPlayIndependentlyTest() throws IOException {
+        Socket[] firstRoom = {join(1), join(2)};
+        Socket[] secondRoom = {join(1), join(2)};
+
+        for (Socket[] room : new Socket[][] {firstRoom, secondRoom}) {
+            long gameSeed = 0;
+            for (int i = 0; i < room.length; i++) {
+                assertEquals(2, Protocol.decodeInt(Protocol.NUMBER_OF_PLAYERS, read(room[i])));
+                long seed = Protocol.decodeLong(Protocol.GAME_SEED, read(room[i]));
+                if (i > 0)
+                    assertEquals(gameSeed, seed);
+                gameSeed = seed;
+                Protocol.decodeLong(Protocol.ROUND_SEED, read(room[i]));
+            }
+        }
+
+        // The programs of the first room are only relayed to the first room
+        for (int i = 0; i < firstRoom.length; i++)
+            send(firstRoom[i], Protocol.encodeUpdate(new PlayerUpdate(i + 1, true, false, new int[] {i, 10, 20, 30, 40})));
+        for (Socket socket : firstRoom) {
+            assertEquals(Protocol.ALL_PLAYERS_RECEIVED, Protocol.getType(read(socket)));
+            assertEquals(2, Protocol.decodeUpdates(read(socket)).size());
+            assertEquals(Protocol.ROUND_SEED, Protocol.getType(read(socket)));
+        }
+        assertEquals(0, secondRoom[0].getInputStream().available());
+    }
+
+    @Test
+    public void roomStopsWaitingForPlayerWhoLeftTest() throws IOException {
+        server.stop();
+        server = new GameServer(0, 3);
+        server.start();
+        Socket[] room = {join(1), join(2), join(3)};
+        for (Socket socket : room) {
+            read(socket);
+            read(socket);
+            read(socket);
+        }
+
+        // Sending again replaces the update, and does not count as the update of another player
+        send(room[0], Protocol.encodeUpdate(new PlayerUpdate(1, true, false, new int[] {0, 10, 20, 30, 40})));
+        send(room[0], Protocol.encodeUpdate(new PlayerUpdate(1, true, false, new int[] {1, 11, 21, 31, 41})));
+        send(room[1], Protocol.encodeUpdate(new PlayerUpdate(2, true, false, new int[] {2, 12, 22, 32, 42})));
+        room[2].close();
+
+        assertEquals(Protocol.ALL_PLAYERS_RECEIVED, Protocol.getType(read(room[1])));
+        List<PlayerUpdate> updates = Protocol.decodeUpdates(read(room[1]));
+        assertEquals(3, updates.size());
+        for (int i = 0; i < updates.size(); i++)
+            assertEquals(i + 1, updates.get(i).getPlayerId());
+        assertTrue(updates.get(2).isPowerDown());
+    }
+
+    @Test
+    public void joiningClosedRoomThrowsTest() throws IOException {
+        // A server without dedicated rooms has no room to join
+        server.stop();
+        server = new GameServer(0, 0);
+        server.start();
+
+        RoboreliableClient.open("127.0.0.1", server.getPort());
+        try {
+            RoboreliableClient.joinRoom(GameServer.ANY_ROOM);
+            assertThrows(IOException.class, RoboreliableClient::getPlayerId);
+        } finally {
+            RoboreliableClient.disconnect();
+        }
+    }
+
+    @Test
+    public void clientKeepsMessagesWhileWaitingForPlayersTest() throws IOException {
+        RoboreliableClient.open("127.0.0.1", server.getPort());
+        try {
+            RoboreliableClient.joinRoom(GameServer.ANY_ROOM);
+            assertEquals(1, RoboreliableClient.getPlayerId());
+            Socket other = join(2);
+            read(other);
+            long gameSeed = Protocol.decodeLong(Protocol.GAME_SEED, read(other));
+            long roundSeed = Protocol.decodeLong(Protocol.ROUND_SEED, read(other));
+
+            RoboreliableClient.sendPlayerToServer(new Player(new Location(0, 0), 1, false));
+            send(other, Protocol.encodeUpdate(new PlayerUpdate(2, true, true, new int[0])));
+
+            // The messages of the start of the game arrive first, and are not lost while waiting
+            assertTrue(RoboreliableClient.allPlayersReceived());
+            assertEquals(2, RoboreliableClient.getPlayersFromServer().size());
+            assertEquals(2, RoboreliableClient.getNumberOfPlayers());
+            assertEquals(gameSeed, RoboreliableClient.getGameSeed());
+            assertEquals(roundSeed, RoboreliableClient.getRoundSeed());
+            assertNotEquals(roundSeed, RoboreliableClient.getRoundSeed());
+        } finally {
+            RoboreliableClient.disconnect();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.game.GameRandom;
+import inf112.skeleton.app.game.GameResult;
+import inf112.skeleton.app.game.GameSimulator;
+import inf112.skeleton.app.game.MapData;
+import inf112.skeleton.app.game.SimulationReport;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for playing games without rendering.
+ */
+public class GameSimulatorTest {
+
+    @Test
+    public void playGameTest() {
+        MapData map = MapData.load("gameboard1.tmx");
+        GameResult result = new GameSimulator(map, 2).playGame();
+
+        assertTrue(result.getRounds() >= 1 && result.getRounds() <= GameSimulator.MAX_ROUNDS);
+        assertEquals(2, result.getFlagsCaptured().length);
+        if (result.hasWinner())
+            assertEquals(4, result.getFlagsCaptured()[result.getWinnerId() - 1]);
+    }
+
+    @Test
+    public void sameSeedPlaysSameGameTest() {
+        MapData map = MapData.load("gameboard1.tmx");
+        GameSimulator simulator = new GameSimulator(map, 3);
+        GameResult first = simulator.playGame(1234);
+        GameResult second = simulator.playGame(1234);
+
+        assertEquals(first.getWinnerId(), second.getWinnerId());
+        assertEquals(first.getRounds(), second.getRounds());
+        assertArrayEquals(first.getFlagsCaptured(), second.getFlagsCaptured());
+    }
+
+    @Test
+    public void gameRandomReplaysFromSeedTest() {
+        GameRandom first = new GameRandom(99);
+        GameRandom second = new GameRandom(99);
+        for (int i = 0; i < 100; i++)
+            assertEquals(first.nextInt(84), second.nextInt(84));
+
+        GameRandom split = first.split();
+        assertEquals(split.nextLong(), second.split().nextLong());
+        // A split has a seed of its own, which replays it
+        GameRandom replayed = new GameRandom(split.getSeed());
+        replayed.nextLong();
+        assertEquals(split.nextLong(), replayed.nextLong());
+        assertNotEquals(split.getSeed(), first.split().getSeed());
+        assertNotEquals(GameRandom.gameSeed(5, 0), GameRandom.gameSeed(5, 1));
+    }
+
+    @Test
+    public void mergeReportsTest() {
+        SimulationReport first = new SimulationReport(2, 4);
+        SimulationReport second = new SimulationReport(2, 4);
+        first.add(new GameResult(1, 10, new int[]{4, 1}));
+        second.add(new GameResult(2, 20, new int[]{0, 4}));
+        second.add(new GameResult(GameResult.NO_WINNER, GameSimulator.MAX_ROUNDS, new int[]{2, 3}));
+
+        first.merge(second);
+
+        assertEquals(3, first.getGames());
+        assertEquals(2, first.getFinishedGames());
+        assertEquals(15.0, first.getAverageRoundsToWin());
+        assertArrayEquals(new int[]{1, 1}, first.getWinsBySeat());
+        assertArrayEquals(new long[]{1, 1, 1, 1, 2}, first.getFlagDistribution());
+    }
+}
@@ -0,0 +1,135 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.Card;
+import inf112.skeleton.app.cards.CardCatalog;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.cards.PackedCardDeck;
+import inf112.skeleton.app.cards.ProgramCardDeck;
+import inf112.skeleton.app.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing for the card deck backed by a circular buffer of card ids.
+ */
+public class PackedCardDeckTest {
+    private final CardCatalog catalog = CardCatalog.OFFICIAL;
+
+    @Test
+    public void cardsGoOnAndOffBothEndsTest() {
+        PackedCardDeck deck = new PackedCardDeck(catalog);
+        deck.addIdToBottom(1);
+        deck.addIdToBottom(2);
+        deck.addIdToTop(0);
+
+        assertEquals(3, deck.getSize());
+        assertEquals(0, deck.getCardId(0));
+        assertEquals(2, deck.getCardId(2));
+        assertEquals(0, deck.takeIdFromTop());
+        assertEquals(2, deck.takeIdFromBottom());
+        assertEquals(1, deck.takeIdFromTop());
+        assertEquals(0, deck.getSize());
+    }
+
+    @Test
+    public void deckGrowsAndWrapsAroundTest() {
+        PackedCardDeck deck = new PackedCardDeck(catalog);
+        for (int i = 0; i < 300; i++)
+            deck.addIdToTop(i % catalog.size());
+        for (int i = 0; i < 300; i++)
+            assertEquals((299 - i) % catalog.size(), deck.takeIdFromTop());
+    }
+
+    @Test
+    public void onlyCardsOfTheCatalogAreAddedTest() {
+        PackedCardDeck deck = new PackedCardDeck(catalog);
+        assertThrows(IllegalArgumentException.class, () -> deck.addToTopOfDeck(new Card(CardValue.F1, 100)));
+        assertThrows(IllegalArgumentException.class, () -> deck.addToDeck(new Card(catalog.getCardValue(3), catalog.getPriorityValue(3), 3)));
+        assertThrows(IllegalArgumentException.class, () -> deck.addToDeck(Card.POWER_DOWN));
+        deck.addToTopOfDeck(catalog.get(3));
+
+        assertEquals(1, deck.getSize());
+        assertSame(catalog.get(3), deck.getCard(0));
+    }
+
+    @Test
+    public void populateAddsCardsOfTheCatalogTest() {
+        PackedCardDeck deck = new PackedCardDeck(catalog);
+        deck.populate(CardValue.F2, 3);
+        deck.populate(CardValue.PD, 5);
+
+        assertEquals(3, deck.getSize());
+        for (int i = 0; i < 3; i++)
+            assertSame(catalog.getNthWithValue(CardValue.F2, i), deck.getCard(i));
+    }
+
+    @Test
+    public void populateWithMoreCardsThanTheCatalogHasTest() {
+        PackedCardDeck deck = new PackedCardDeck(catalog);
+        CardDeck cardDeck = new CardDeck();
+
+        assertThrows(IllegalArgumentException.class, () -> deck.populate(CardValue.F3, 7));
+        assertThrows(IllegalArgumentException.class, () -> cardDeck.populate(CardValue.F3, 7));
+        assertEquals(0, deck.getSize());
+        assertEquals(0, cardDeck.getSize());
+        assertNull(catalog.getNthWithValue(CardValue.F3, 6));
+    }
+
+    @Test
+    public void removeKeepsOrderOfOtherCardsTest() {
+        PackedCardDeck deck = new PackedCardDeck(catalog);
+        for (int id = 0; id < 10; id++)
+            deck.addIdToBottom(id);
+        deck.remove(2);
+        deck.remove(catalog.get(7));
+
+        assertEquals(8, deck.getSize());
+        assertArrayEquals(new int[] {0, 1, 3, 4, 5, 6, 8, 9}, ids(deck));
+        assertFalse(deck.contains(catalog.get(7)));
+    }
+
+    @Test
+    public void dealtCardsComeFromTheTopTest() {
+        ProgramCardDeck deck = new ProgramCardDeck(3);
+        deck.shuffle(new Random(1));
+        Card top = deck.getCard(0);
+        Player player = new Player(new Location(0, 0), 1);
+        deck.dealCard(player, 9);
+
+        assertEquals(84 - 9, deck.getSize());
+        assertSame(top, player.getHand().getCard(0));
+        assertSame(deck.getCardById(top.getId()), top);
+    }
+
+    @Test
+    public void officialPrioritiesAreUniqueTest() {
+        HashSet<Integer> priorities = new HashSet<>();
+        for (int id = 0; id < catalog.size(); id++)
+            priorities.add(catalog.getPriorityValue(id));
+
+        assertEquals(84, catalog.size());
+        assertEquals(84, priorities.size());
+        assertEquals(10, catalog.getNthWithValue(CardValue.UT, 0).getPriorityValue());
+        assertEquals(840, catalog.getNthWithValue(CardValue.F3, 5).getPriorityValue());
+        assertEquals(410, catalog.getNthWithValue(CardValue.RL, 17).getPriorityValue());
+    }
+
+    @Test
+    public void decksShareTheCardsOfTheCatalogTest() {
+        ProgramCardDeck first = new ProgramCardDeck(1);
+        ProgramCardDeck second = new ProgramCardDeck(2);
+        assertSame(first.getCardById(40), second.getCardById(40));
+    }
+
+    private int[] ids(PackedCardDeck deck) {
+        int[] ids = new int[deck.getSize()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = deck.getCardId(i);
+        return ids;
+    }
+}
@@ -1,14 +1,18 @@
 package inf112.skeleton.app;
 
 import inf112.skeleton.app.cards.Card;
+import inf112.skeleton.app.cards.CardDeck;
 import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.game.PhaseScheduler;
 import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  *
@@ -34,6 +38,60 @@ public class PriorityValueTest {
 
     @Test
     public void test() {
-        PriorityQueue<AbstractPlayer> phaseQueue = board.getPhaseQueue();
+        PhaseScheduler phaseQueue = board.getPhaseQueue();
+        assertTrue(phaseQueue.isEmpty());
+    }
+
+    private Player programmedPlayer(int playerId, int... priorities) {
+        Player player = new Player(new Location(playerId, 0), playerId);
+        CardDeck register = new CardDeck();
+        for (int priority : priorities)
+            register.addToDeck(new Card(CardValue.F1, priority));
+        player.getRobot().updateRegister(register);
+        return player;
+    }
+
+    private List<AbstractPlayer> nextPhase(PhaseScheduler scheduler) {
+        scheduler.startNextPhase();
+        List<AbstractPlayer> order = new ArrayList<>();
+        while (!scheduler.isEmpty())
+            order.add(scheduler.poll());
+        return order;
+    }
+
+    @Test
+    public void everyPhaseIsOrderedByPriorityTest() {
+        Player first = programmedPlayer(1, 500, 20);
+        Player second = programmedPlayer(2, 840, 20);
+        Player third = programmedPlayer(3, 10, 780);
+        PhaseScheduler scheduler = new PhaseScheduler();
+        scheduler.schedule(List.of(first, second, third));
+
+        assertEquals(List.of(second, first, third), nextPhase(scheduler));
+        // equal priorities keep the seat order
+        assertEquals(List.of(third, first, second), nextPhase(scheduler));
+        assertFalse(scheduler.hasNextPhase());
+    }
+
+    @Test
+    public void destroyedRobotsSkipTheirPhasesTest() {
+        Player first = programmedPlayer(1, 100, 100);
+        Player second = programmedPlayer(2, 200, 200);
+        PhaseScheduler scheduler = new PhaseScheduler();
+        scheduler.schedule(List.of(first, second));
+        assertEquals(List.of(second, first), nextPhase(scheduler));
+
+        first.getRobot().destroy();
+        assertEquals(List.of(second), nextPhase(scheduler));
+    }
+
+    @Test
+    public void playerComparesByNextCardTest() {
+        Player low = programmedPlayer(1, 100);
+        Player high = programmedPlayer(2, 300);
+        Player empty = new Player(new Location(3, 0), 3);
+
+        assertTrue(high.compareTo(low) > 0);
+        assertTrue(empty.compareTo(low) < 0);
     }
 }
@@ -0,0 +1,101 @@
+package inf112.skeleton.app;
+
+import Network.PlayerUpdate;
+import Network.Protocol;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.cards.ProgramCardDeck;
+import inf112.skeleton.app.player.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary messages sent between the server and the clients.
+ */
+public class ProtocolTest {
+    private static final long SEED = 42;
+    // Another copy of the same deck, as the receiving player has it
+    private final ProgramCardDeck receiverDeck = new ProgramCardDeck(SEED);
+
+    private Player programmedPlayer(int playerId) {
+        ProgramCardDeck deck = new ProgramCardDeck(SEED);
+        Player player = new Player(new Location(2, 0), playerId);
+        CardDeck register = new CardDeck();
+        for (int cardId : new int[] {0, 40, 80, 30, 83})
+            register.addToDeck(deck.getCardById(cardId));
+        player.getRobot().updateRegister(register);
+        player.setReady(true);
+        return player;
+    }
+
+    @Test
+    public void playerUpdateRoundTripTest() throws IOException {
+        Player sender = programmedPlayer(3);
+        byte[] message = Protocol.encodeUpdate(PlayerUpdate.of(sender));
+        // header, id, flags, count and the id of each of the five cards
+        assertEquals(10, message.length);
+
+        Player receiver = new Player(new Location(2, 0), 3);
+        receiver.addToHand(receiverDeck.getCardById(80));
+        receiver.addToHand(receiverDeck.getCardById(1));
+        Protocol.decodeUpdate(message).applyTo(receiver, receiverDeck);
+
+        CardDeck register = receiver.getRobot().getRegister();
+        CardDeck sent = sender.getRobot().getRegister();
+        assertTrue(receiver.getReady());
+        assertEquals(5, register.getSize());
+        assertSame(receiverDeck.getCardById(80), register.getCard(2));
+        assertEquals(sent.getCardValueAt(2), register.getCardValueAt(2));
+        assertEquals(sent.getCard(2).getPriorityValue(), register.getCard(2).getPriorityValue());
+        // the programmed card is taken out of the hand, the other one is left
+        assertEquals(1, receiver.getHandSize());
+    }
+
+    @Test
+    public void powerDownSendsNoCardsTest() throws IOException {
+        Player sender = new Player(new Location(2, 0), 1);
+        CardDeck register = new CardDeck();
+        register.populate(CardValue.PD, 5);
+        sender.getRobot().updateRegister(register);
+
+        byte[] message = Protocol.encodeUpdate(PlayerUpdate.of(sender));
+        PlayerUpdate update = Protocol.decodeUpdate(message);
+        assertTrue(update.isPowerDown());
+        assertEquals(0, update.getCardIds().length);
+
+        Player receiver = new Player(new Location(2, 0), 1);
+        update.applyTo(receiver, receiverDeck);
+        assertEquals(5, receiver.getRobot().getRegister().getSize());
+        assertEquals(CardValue.PD, receiver.getRobot().getRegister().getCardValueAt(4));
+    }
+
+    @Test
+    public void allUpdatesInOneMessageTest() throws IOException {
+        List<PlayerUpdate> updates = Arrays.asList(PlayerUpdate.of(programmedPlayer(1)), PlayerUpdate.of(programmedPlayer(2)));
+        ArrayList<PlayerUpdate> decoded = Protocol.decodeUpdates(Protocol.encodeUpdates(updates));
+
+        assertEquals(2, decoded.size());
+        assertEquals(2, decoded.get(1).getPlayerId());
+        assertArrayEquals(updates.get(1).getCardIds(), decoded.get(1).getCardIds());
+    }
+
+    @Test
+    public void seedsAreSentAsLongsTest() throws IOException {
+        byte[] message = Protocol.encodeLong(Protocol.ROUND_SEED, Long.MIN_VALUE + 7);
+        assertEquals(Long.MIN_VALUE + 7, Protocol.decodeLong(Protocol.ROUND_SEED, message));
+    }
+
+    @Test
+    public void otherVersionIsRejectedTest() {
+        byte[] message = Protocol.encodeInt(Protocol.PLAYER_ID, 2);
+        message[0] = Protocol.VERSION + 1;
+        assertThrows(IOException.class, () -> Protocol.decodeInt(Protocol.PLAYER_ID, message));
+        assertThrows(IOException.class, () -> Protocol.decodeInt(Protocol.NUMBER_OF_PLAYERS, Protocol.encodeInt(Protocol.PLAYER_ID, 2)));
+    }
+}
@@ -0,0 +1,74 @@
+package inf112.skeleton.app;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing that the robot layer only changes the cells of robots that have changed.
+ */
+public class RobotLayerTest {
+    private final EnumMap<RobotLayer.Sprite, TiledMapTileLayer.Cell> cells = new EnumMap<>(RobotLayer.Sprite.class);
+    private final ArrayList<AbstractPlayer> players = new ArrayList<>();
+    private TiledMapTileLayer layer;
+    private RobotLayer robotLayer;
+
+    @BeforeEach
+    public void setUp() {
+        for (RobotLayer.Sprite sprite : RobotLayer.Sprite.values())
+            cells.put(sprite, new TiledMapTileLayer.Cell());
+        layer = new TiledMapTileLayer(12, 12, 300, 300);
+        robotLayer = new RobotLayer(layer, cells);
+        players.add(new Player(new Location(2, 0), 1));
+        players.add(new Player(new Location(5, 0), 2));
+    }
+
+    @Test
+    public void idleBoardTouchesNoCellsTest() {
+        assertEquals(2, robotLayer.render(players, false));
+        assertEquals(0, robotLayer.render(players, false));
+    }
+
+    @Test
+    public void movedRobotIsRedrawnTest() {
+        robotLayer.render(players, false);
+        players.get(0).getRobot().moveForward(1);
+
+        // The old cell is cleared and the new one is drawn
+        assertEquals(2, robotLayer.render(players, false));
+        assertNull(layer.getCell(2, 0));
+        assertSame(cells.get(RobotLayer.Sprite.UP), layer.getCell(2, 1));
+        assertSame(cells.get(RobotLayer.Sprite.UP), layer.getCell(5, 0));
+    }
+
+    @Test
+    public void turnedAndWinningRobotsAreRedrawnTest() {
+        robotLayer.render(players, false);
+        players.get(1).getRobot().rotateRight(1);
+        robotLayer.render(players, false);
+        assertSame(cells.get(RobotLayer.Sprite.RIGHT), layer.getCell(5, 0));
+
+        robotLayer.render(players, true);
+        assertSame(cells.get(RobotLayer.Sprite.WON), layer.getCell(2, 0));
+        assertSame(cells.get(RobotLayer.Sprite.WON), layer.getCell(5, 0));
+    }
+
+    @Test
+    public void hiddenRobotLeavesItsCellEmptyTest() {
+        robotLayer.render(players, false);
+        AbstractPlayer moving = players.get(0);
+        robotLayer.render(players, false, robot -> robot == moving.getRobot());
+        assertNull(layer.getCell(2, 0));
+
+        // The robot is drawn on the layer again when it stops being hidden
+        robotLayer.render(players, false);
+        assertSame(cells.get(RobotLayer.Sprite.UP), layer.getCell(2, 0));
+    }
+}
@@ -3,11 +3,16 @@ package inf112.skeleton.app;
 import inf112.skeleton.app.cards.Card;
 import inf112.skeleton.app.cards.CardValue;
 import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.player.AbstractPlayer;
 import inf112.skeleton.app.player.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Tests for the Robot class.
@@ -88,4 +93,40 @@ public class RobotTest {
     }
 
 
-}
+    @Test
+    public void moveStopsAtEdgeTest() {
+        robot.setBoardSize(12, 12);
+        robot.setDirection(Direction.LEFT);
+        robot.moveForward(3);
+        assertEquals(new Location(0, 0), robot.getLocation());
+
+        robot.setDirection(Direction.UP);
+        robot.moveForward(20);
+        assertEquals(new Location(0, 11), robot.getLocation());
+    }
+
+    @Test
+    public void moveStopsAtEdgeOfLargerBoardTest() {
+        ArrayList<AbstractPlayer> players = new ArrayList<>();
+        players.add(robot.getOwner());
+        robot.getOwner().getRobot().setLocation(new Location(0, 0));
+        new GameState(players, 150, 150);
+
+        Robot boardRobot = robot.getOwner().getRobot();
+        boardRobot.moveForward(100);
+        assertEquals(new Location(0, 100), boardRobot.getLocation());
+        boardRobot.moveForward(100);
+        assertEquals(new Location(0, 149), boardRobot.getLocation());
+    }
+
+    @Test
+    public void moveReusesLocationsTest() {
+        robot.moveForward(2);
+        Location location = robot.getLocation();
+        robot.moveBackward(1);
+        robot.moveForward(1);
+
+        assertSame(location, robot.getLocation());
+        assertSame(Location.of(0, 2), location);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.cards.Card;
+import inf112.skeleton.app.cards.CardCatalog;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Hole;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.MapData;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the headless rules engine.
+ */
+public class RulesEngineTest {
+    private ArrayList<AbstractPlayer> players;
+    private Player player;
+    private RulesEngine engine;
+
+    @BeforeEach
+    public void createEngine() {
+        players = new ArrayList<>();
+        player = new Player(new Location(0, 0), 1);
+        players.add(player);
+        engine = new RulesEngine(new GameState(players, 12, 12));
+    }
+
+    private void program(AbstractPlayer player, CardValue... cardValues) {
+        CardDeck register = new CardDeck();
+        // Takes the cards from the program deck, as dealing does
+        for (int i = 0; i < cardValues.length; i++) {
+            Card card = CardCatalog.OFFICIAL.getNthWithValue(cardValues[i], i);
+            engine.getState().getProgramCardDeck().remove(card);
+            register.addToDeck(card);
+        }
+        player.getRobot().updateRegister(register);
+        player.setReady(true);
+    }
+
+    @Test
+    public void loadMapWithoutGraphicsTest() {
+        MapData map = MapData.load("gameboard1.tmx");
+        GameState state = new GameState(players, map);
+
+        assertEquals(12, state.getWidth());
+        assertEquals(12, state.getHeight());
+        assertEquals(4, state.getFlags().size());
+        assertFalse(state.getHoles().isEmpty());
+    }
+
+    @Test
+    public void executePhaseMovesRobotTest() {
+        program(player, CardValue.F2);
+        engine.updatePhaseQueue();
+        engine.executePhase();
+
+        assertEquals(new Location(0, 2), player.getRobot().getLocation());
+        assertTrue(engine.registersAreEmpty());
+        assertTrue(engine.getState().getPhaseQueue().isEmpty());
+    }
+
+    @Test
+    public void robotOnHoleIsDestroyedTest() {
+        engine.getState().addHole(new Hole(new Location(0, 1)));
+        program(player, CardValue.F1);
+        engine.updatePhaseQueue();
+        engine.executePhase();
+
+        assertTrue(player.getRobot().getIsDestroyed());
+        assertEquals(2, player.getRobot().getLifeTokens());
+
+        engine.cleanup();
+        assertFalse(player.getRobot().getIsDestroyed());
+        assertEquals(new Location(0, 0), player.getRobot().getLocation());
+    }
+
+    @Test
+    public void visitingAllFlagsWinsTest() {
+        engine.getState().setFlags(Arrays.asList(new Flag(1, new Location(0, 1)), new Flag(2, new Location(0, 2))));
+        program(player, CardValue.F1, CardValue.B1, CardValue.F2);
+
+        engine.updatePhaseQueue();
+        engine.executePhase();
+        assertEquals(1, player.getVisitedFlags().size());
+        assertEquals(new Location(0, 1), player.getRobot().getArchiveMarker().getLocation());
+
+        engine.updatePhaseQueue();
+        engine.executePhase();
+        assertFalse(engine.checkIfWon());
+
+        engine.updatePhaseQueue();
+        engine.executePhase();
+        assertEquals(2, player.getVisitedFlags().size());
+        assertTrue(engine.checkIfWon());
+    }
+
+    @Test
+    public void lockstepRoundDealsSameHandsTest() {
+        ArrayList<AbstractPlayer> otherPlayers = new ArrayList<>();
+        otherPlayers.add(new Player(new Location(0, 0), 1));
+        otherPlayers.add(new Player(new Location(3, 0), 2));
+        players.add(new Player(new Location(3, 0), 2));
+        MapData map = MapData.load("gameboard1.tmx");
+        RulesEngine host = new RulesEngine(new GameState(players, map, 7));
+        RulesEngine client = new RulesEngine(new GameState(otherPlayers, map, 7));
+
+        // the client picks cards in its own order, which changes the order of its deck
+        client.startNewRound(99);
+        CardDeck clientHand = otherPlayers.get(1).getHand();
+        clientHand.addToDeck(clientHand.getCard(0));
+        clientHand.remove(0);
+        host.startNewRound(99);
+        host.putHandBackToDeck(players.get(1));
+        client.putHandBackToDeck(otherPlayers.get(1));
+
+        host.startNewRound(1234);
+        client.startNewRound(1234);
+        for (int i = 0; i < players.size(); i++) {
+            CardDeck hostHand = players.get(i).getHand();
+            clientHand = otherPlayers.get(i).getHand();
+            assertEquals(RulesEngine.HAND_SIZE, hostHand.getSize());
+            for (int card = 0; card < hostHand.getSize(); card++) {
+                assertEquals(hostHand.getCard(card).getId(), clientHand.getCard(card).getId());
+                assertEquals(hostHand.getCard(card).getPriorityValue(), clientHand.getCard(card).getPriorityValue());
+            }
+        }
+    }
+}
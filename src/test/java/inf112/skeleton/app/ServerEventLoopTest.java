@@ -0,0 +1,93 @@
+package inf112.skeleton.app;
+
+import Network.ClientHandler;
+import Network.Frames;
+import Network.Protocol;
+import Network.ServerEventLoop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the selector based server, using clients on localhost.
+ */
+public class ServerEventLoopTest {
+    private ServerEventLoop eventLoop;
+
+    /**
+     * Sends every frame it receives back to the client it came from.
+     */
+    private static class Echo implements ServerEventLoop.Listener {
+        @Override
+        public void connected(ClientHandler client) {
+            client.sendPlayerIdToClient(7);
+        }
+
+        @Override
+        public void frameReceived(ClientHandler client, byte[] frame) {
+            client.send(frame);
+        }
+
+        @Override
+        public void disconnected(ClientHandler client) {
+        }
+    }
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        eventLoop = new ServerEventLoop(0, new Echo());
+        eventLoop.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        eventLoop.stop();
+    }
+
+    @Test
+    public void framesAreEchoedTest() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", eventLoop.getPort())) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+            assertEquals(7, Protocol.decodeInt(Protocol.PLAYER_ID, Frames.read(in)));
+
+            // larger than the read buffer, so it arrives over several reads
+            byte[] large = new byte[20000];
+            large[19999] = 42;
+            Frames.write(out, Protocol.encodeInt(Protocol.PLAYER_ID, 3));
+            Frames.write(out, large);
+
+            assertEquals(3, Protocol.decodeInt(Protocol.PLAYER_ID, Frames.read(in)));
+            assertArrayEquals(large, Frames.read(in));
+        }
+    }
+
+    @Test
+    public void manyClientsOnOneThreadTest() throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 50; i++)
+                sockets.add(new Socket("127.0.0.1", eventLoop.getPort()));
+            for (int i = 0; i < sockets.size(); i++)
+                Frames.write(new DataOutputStream(sockets.get(i).getOutputStream()), Protocol.encodeInt(Protocol.PLAYER_ID, i));
+            for (int i = 0; i < sockets.size(); i++) {
+                DataInputStream in = new DataInputStream(sockets.get(i).getInputStream());
+                assertEquals(7, Protocol.decodeInt(Protocol.PLAYER_ID, Frames.read(in)));
+                assertEquals(i, Protocol.decodeInt(Protocol.PLAYER_ID, Frames.read(in)));
+            }
+        } finally {
+            for (Socket socket : sockets)
+                socket.close();
+        }
+    }
+}
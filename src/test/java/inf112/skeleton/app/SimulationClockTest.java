@@ -0,0 +1,43 @@
+package inf112.skeleton.app;
+
+import inf112.skeleton.app.game.SimulationClock;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testing for the fixed-timestep clock of the simulation.
+ */
+public class SimulationClockTest {
+
+    private int stepsAfter(SimulationClock clock, int frames, float delta) {
+        int steps = 0;
+        for (int i = 0; i < frames; i++)
+            steps += clock.advance(delta);
+        return steps;
+    }
+
+    @Test
+    public void paceDoesNotDependOnFrameRateTest() {
+        // Ten seconds at 30, 60 and 144 frames per second
+        assertEquals(10, stepsAfter(new SimulationClock(1), 300, 1f / 30));
+        assertEquals(10, stepsAfter(new SimulationClock(1), 600, 1f / 60), 1);
+        assertEquals(10, stepsAfter(new SimulationClock(1), 1440, 1f / 144), 1);
+    }
+
+    @Test
+    public void alphaIsProgressTowardsNextStepTest() {
+        SimulationClock clock = new SimulationClock(1);
+        assertEquals(0, clock.advance(0.25f));
+        assertEquals(0.25f, clock.getAlpha(), 0.0001);
+        assertEquals(1, clock.advance(1f));
+        assertEquals(0.25f, clock.getAlpha(), 0.0001);
+    }
+
+    @Test
+    public void fasterSpeedRunsMoreStepsTest() {
+        SimulationClock clock = new SimulationClock(1);
+        clock.setSpeed(4);
+        assertEquals(4, stepsAfter(clock, 60, 1f / 60), 1);
+    }
+}
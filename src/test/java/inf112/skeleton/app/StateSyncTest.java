@@ -0,0 +1,115 @@
+package inf112.skeleton.app;
+
+import Network.Protocol;
+import Network.StateDelta;
+import Network.StateReceiver;
+import Network.StateSnapshot;
+import inf112.skeleton.app.cards.Card;
+import inf112.skeleton.app.cards.CardCatalog;
+import inf112.skeleton.app.cards.CardDeck;
+import inf112.skeleton.app.cards.CardValue;
+import inf112.skeleton.app.entity.Flag;
+import inf112.skeleton.app.entity.Robot;
+import inf112.skeleton.app.game.GameState;
+import inf112.skeleton.app.game.RulesEngine;
+import inf112.skeleton.app.game.StateListener;
+import inf112.skeleton.app.player.AbstractPlayer;
+import inf112.skeleton.app.player.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for sending the changes of the host's state to a client as numbered deltas.
+ */
+public class StateSyncTest {
+    private RulesEngine host;
+    private RulesEngine client;
+    private final ArrayList<byte[]> sent = new ArrayList<>();
+    private int snapshotRequests;
+    private StateReceiver receiver;
+
+    private RulesEngine createEngine() {
+        ArrayList<AbstractPlayer> players = new ArrayList<>();
+        players.add(new Player(new Location(2, 0), 1));
+        players.add(new Player(new Location(5, 0), 2));
+        GameState state = new GameState(players, 12, 12);
+        state.setFlags(Arrays.asList(new Flag(1, new Location(2, 2))));
+        return new RulesEngine(state);
+    }
+
+    @BeforeEach
+    public void createGames() {
+        host = createEngine();
+        client = createEngine();
+        // Encodes every change the host makes, the way StateBroadcaster does
+        host.setListener(new StateListener() {
+            @Override
+            public void robotChanged(Robot robot) {
+                sent.add(Protocol.encodeDelta(sent.size() + 1, StateDelta.robot(robot)));
+            }
+
+            @Override
+            public void flagVisited(AbstractPlayer player, Flag flag) {
+                sent.add(Protocol.encodeDelta(sent.size() + 1, StateDelta.flagVisited(player, flag)));
+            }
+        });
+        receiver = new StateReceiver(() -> snapshotRequests++);
+    }
+
+    private void playPhase() {
+        for (AbstractPlayer player : host.getState().getPlayers()) {
+            CardDeck register = new CardDeck();
+            Card card = CardCatalog.OFFICIAL.getNthWithValue(CardValue.F2, player.getPlayerId());
+            host.getState().getProgramCardDeck().remove(card);
+            register.addToDeck(card);
+            player.getRobot().updateRegister(register);
+            player.setReady(true);
+        }
+        host.updatePhaseQueue();
+        host.executePhase();
+        host.executePhase();
+    }
+
+    @Test
+    public void deltasAreAppliedInPlaceTest() throws IOException {
+        AbstractPlayer clientPlayer = client.getState().getPlayer(1);
+        playPhase();
+        for (byte[] frame : sent)
+            receiver.received(frame);
+        receiver.applyPending(client);
+
+        assertSame(clientPlayer, client.getState().getPlayer(1));
+        assertEquals(new Location(2, 2), clientPlayer.getRobot().getLocation());
+        assertEquals(new Location(5, 2), client.getState().getPlayer(2).getRobot().getLocation());
+        assertEquals(1, clientPlayer.getVisitedFlags().size());
+        assertTrue(client.robotAtLocation(new Location(2, 2)));
+        assertFalse(client.robotAtLocation(new Location(2, 0)));
+        assertEquals(sent.size(), receiver.getVersion());
+        assertEquals(0, snapshotRequests);
+    }
+
+    @Test
+    public void missedDeltaRequestsSnapshotTest() throws IOException {
+        playPhase();
+        for (int i = 1; i < sent.size(); i++)
+            receiver.received(sent.get(i));
+        receiver.applyPending(client);
+
+        assertEquals(1, snapshotRequests);
+        assertEquals(0, receiver.getVersion());
+        assertEquals(new Location(2, 0), client.getState().getPlayer(1).getRobot().getLocation());
+
+        receiver.received(Protocol.encodeSnapshot(StateSnapshot.of(host.getState(), sent.size())));
+        receiver.applyPending(client);
+
+        assertEquals(sent.size(), receiver.getVersion());
+        assertEquals(new Location(2, 2), client.getState().getPlayer(1).getRobot().getLocation());
+        assertEquals(1, client.getState().getPlayer(1).getVisitedFlags().size());
+    }
+}